@@ -0,0 +1,72 @@
+package com.example.codeforge.mapper;
+
+import com.example.codeforge.dto.submission.SubmissionDetailResponse;
+import com.example.codeforge.entity.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the submission detail response for submissions with many
+ * testcase results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubmissionMapperBenchmark {
+
+    @Param({"100", "10000"})
+    private int testcases;
+
+    private Submission submission;
+    private List<SubmissionResult> results;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        Problem problem = Problem.builder().id(1L).title("Sum").build();
+        submission = Submission.builder()
+                .id(1L)
+                .problem(problem)
+                .code("print(sum(map(int, input().split())))")
+                .status(SubmissionStatus.FAILED)
+                .createdAt(now)
+                .build();
+
+        results = new ArrayList<>(testcases);
+        for (int i = 0; i < testcases; i++) {
+            boolean passed = i % 10 != 0;
+            results.add(SubmissionResult.builder()
+                    .id((long) i)
+                    .submission(submission)
+                    .testcase(Testcase.builder().id((long) i).problem(problem).build())
+                    .passed(passed)
+                    .verdict(passed ? "PASSED" : "FAILED")
+                    .output(String.valueOf(i))
+                    .error("")
+                    .executionTime(20)
+                    .cpuTime(18)
+                    .peakMemoryKb(9000)
+                    .setupMicros(400)
+                    .spawnMicros(7000)
+                    .runMicros(20000)
+                    .captureMicros(100)
+                    .judgeMicros(10)
+                    .cleanupMicros(100)
+                    .mismatchOffset(passed ? null : 0L)
+                    .createdAt(now)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public SubmissionDetailResponse toDetailResponse() {
+        return SubmissionMapper.toDetailResponse(submission, results);
+    }
+}
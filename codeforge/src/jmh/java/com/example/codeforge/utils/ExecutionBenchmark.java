@@ -0,0 +1,52 @@
+package com.example.codeforge.utils;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spawn-to-verdict latency of a trivial program on the {@code PROCESS} path:
+ * workspace, interpreter start, run, capture, judging and cleanup. Needs
+ * {@code python} on the PATH.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutionBenchmark {
+
+    private static final String CODE = "print(sum(map(int, input().split())))";
+
+    private WorkspacePool workspaces;
+    private ProcessReaper reaper;
+
+    @Setup
+    public void setUp() throws IOException {
+        reaper = new ProcessReaper();
+        workspaces = new WorkspacePool(reaper);
+        ReflectionTestUtils.setField(workspaces, "root", "");
+        workspaces.start();
+
+        // ❗ Fail loudly rather than time error paths
+        String verdict = processRun();
+        if (!"PASSED".equals(verdict)) {
+            throw new IllegalStateException("Benchmark program did not pass: " + verdict);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        reaper.shutdown();
+        workspaces.shutdown();
+    }
+
+    @Benchmark
+    public String processRun() {
+        return CodeExecutionUtil.executeAndJudgePython(
+                workspaces, reaper, CODE, null, "1 2", "3", Checkers.EXACT).verdict();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.codeforge.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Judging a correct answer of {@code outputChars} characters: the built-in
+ * checkers, the streaming judge used by {@code PROCESS} runs, and the output
+ * helpers every backend goes through.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JudgeBenchmark {
+
+    @Param({"1000", "1000000"})
+    private int outputChars;
+
+    private String expected;
+    private String output;
+    private String crlfOutput;
+    private String floatExpected;
+    private String floatOutput;
+    private byte[] outputBytes;
+
+    @Setup
+    public void setUp() {
+        expected = lines(outputChars, "");
+        output = expected + "\n";
+        crlfOutput = output.replace("\n", "\r\n");
+        floatExpected = lines(outputChars, ".5");
+        floatOutput = lines(outputChars, ".5000001");
+        outputBytes = output.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // "0 1 2 ... 9\n10 11 ..." up to the requested length
+    private static String lines(int chars, String fraction) {
+        StringBuilder sb = new StringBuilder(chars + 32);
+        for (int i = 0; sb.length() < chars; i++) {
+            sb.append(i).append(fraction).append(i % 10 == 9 ? '\n' : ' ');
+        }
+        return sb.toString().strip();
+    }
+
+    @Benchmark
+    public boolean exactChecker() {
+        return Checkers.EXACT.accepts(output, expected);
+    }
+
+    @Benchmark
+    public boolean tokensChecker() {
+        return Checkers.TOKENS.accepts(crlfOutput, expected);
+    }
+
+    @Benchmark
+    public boolean floatTokensChecker() {
+        return Checkers.FLOAT_TOKENS.accepts(floatOutput, floatExpected);
+    }
+
+    @Benchmark
+    public boolean unorderedLinesChecker() {
+        return Checkers.UNORDERED_LINES.accepts(output, expected);
+    }
+
+    @Benchmark
+    public boolean streamingJudge() throws IOException {
+        StreamingJudge judge = new StreamingJudge(expected, Checkers.EXACT, () -> {});
+        judge.consume(new ByteArrayInputStream(outputBytes));
+        return judge.passed();
+    }
+
+    @Benchmark
+    public boolean isNumber() {
+        // was looksNumeric's String.matches
+        return Checkers.isNumber("-12345.678901e-3", 0, 16);
+    }
+
+    @Benchmark
+    public String normalize() {
+        return CodeExecutionUtil.normalize(crlfOutput);
+    }
+
+    @Benchmark
+    public String readStream() throws IOException {
+        return CodeExecutionUtil.readStream(new ByteArrayInputStream(outputBytes));
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.codeforge.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExecutionConfig {
+
+    // ✅ Shared by all submissions so total testcase concurrency stays bounded
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService testcaseExecutor(
+            @Value("${execution.parallelism:0}") int parallelism) {
+
+        int threads = parallelism > 0
+                ? parallelism
+                : Runtime.getRuntime().availableProcessors();
+
+        return Executors.newFixedThreadPool(threads, daemonThreads("testcase-runner-"));
+    }
+
+    static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
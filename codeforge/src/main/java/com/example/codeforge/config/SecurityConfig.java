@@ -1,5 +1,6 @@
 package com.example.codeforge.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -49,6 +50,9 @@ public class SecurityConfig {
             // ✅ Authorization rules (POLICY ONLY)
             .authorizeHttpRequests(auth -> auth
 
+                // SSE completion dispatches (request was authorized on entry)
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // PUBLIC AUTH ENDPOINTS
                 .requestMatchers(
                     "/api/auth/login",
@@ -62,8 +66,11 @@ public class SecurityConfig {
                     "/swagger-ui.html"
                 ).permitAll()
 
+                // HEALTH PROBES
+                .requestMatchers("/actuator/health").permitAll()
+
                 // ADMIN ONLY
-                .requestMatchers("/api/admin/**")
+                .requestMatchers("/api/admin/**", "/actuator/**")
                 .hasAuthority("ROLE_ADMIN")
 
                 // EVERYTHING ELSE NEEDS JWT
@@ -0,0 +1,31 @@
+package com.example.codeforge.controller;
+
+import com.example.codeforge.dto.execution.ResultCacheStatsResponse;
+import com.example.codeforge.service.ExecutionResultCache;
+import com.example.codeforge.utils.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/execution")
+@RequiredArgsConstructor
+@Slf4j
+public class ExecutionAdminController {
+
+    private final ExecutionResultCache resultCache;
+
+    // 🔴 ADMIN ONLY - Result cache hit/miss counters
+    @GetMapping("/result-cache")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ApiResponse<ResultCacheStatsResponse> getResultCacheStats() {
+        log.info("Admin fetching result cache stats");
+        return ApiResponse.success(
+                resultCache.stats(),
+                "Result cache stats fetched"
+        );
+    }
+}
@@ -11,10 +11,12 @@ import lombok.extern.slf4j.Slf4j;
 import java.util.List;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/submissions")
@@ -34,13 +36,14 @@ public class SubmissionController {
         log.info("User {} submitting code for problem {}", 
                  authentication.getName(), request.getProblemId());
         
-        return ResponseEntity.status(HttpStatus.CREATED)
+        // ✅ 202: judged asynchronously, poll GET /api/submissions/{id}
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
                 .body(ApiResponse.success(
                         submissionService.submit(
                                 authentication.getName(),
                                 request
                         ),
-                        "Code submitted successfully"
+                        "Code submitted for judging"
                 ));
     }
 
@@ -62,6 +65,19 @@ public class SubmissionController {
                 "Submission details fetched"
         );
     }
+    // ✅ LIVE VERDICTS (Server-Sent Events: "testcase" per result, then "status")
+    @GetMapping(value = "/{submissionId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public SseEmitter streamSubmissionEvents(
+            @PathVariable Long submissionId,
+            Authentication authentication) {
+
+        log.info("User {} streaming events for submission {}",
+                 authentication.getName(), submissionId);
+
+        return submissionService.streamEvents(authentication.getName(), submissionId);
+    }
+
     @GetMapping("/my")
 @PreAuthorize("isAuthenticated()")
 public ApiResponse<List<SubmissionResponse>> getMySubmissions(
@@ -0,0 +1,18 @@
+package com.example.codeforge.dto.execution;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@Builder
+public class ResultCacheStatsResponse {
+    private boolean enabled;
+    private long hits;
+    private long misses;
+    private int size;
+    private int maxEntries;
+}
@@ -1,5 +1,7 @@
 package com.example.codeforge.dto.problem;
 
+import com.example.codeforge.entity.CheckerType;
+import com.example.codeforge.entity.JudgingPolicy;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -12,4 +14,7 @@ public class ProblemRequest {
     private String constraints;
     private String difficulty;
     private String tags;
+    private JudgingPolicy judgingPolicy; // optional, defaults to RUN_ALL
+    private CheckerType checker; // optional, defaults to EXACT
+    private String checkerCode; // required for SPECIAL: Python defining check(input, expected, output)
 }
@@ -17,4 +17,6 @@ public class ProblemResponse {
     private String constraints;
     private String difficulty;
     private String tags;
+    private String judgingPolicy;
+    private String checker;
 }
\ No newline at end of file
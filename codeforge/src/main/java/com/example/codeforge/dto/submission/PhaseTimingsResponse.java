@@ -0,0 +1,20 @@
+package com.example.codeforge.dto.submission;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+// Where the time of a run went, in microseconds (null = not measured)
+@Getter
+@Setter
+@AllArgsConstructor
+@Builder
+public class PhaseTimingsResponse {
+    private Long setupMicros;
+    private Long spawnMicros;
+    private Long runMicros;
+    private Long captureMicros;
+    private Long judgeMicros;
+    private Long cleanupMicros;
+}
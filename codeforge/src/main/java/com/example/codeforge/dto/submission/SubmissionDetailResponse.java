@@ -22,4 +22,5 @@ public class SubmissionDetailResponse {
     private Integer passedTestcases;
     private LocalDateTime createdAt;
     private List<TestcaseResultResponse> testcaseResults;  // ✅ Detailed results
+    private PhaseTimingsResponse phaseTotals;  // ✅ Per-phase sums over all testcases
 }
\ No newline at end of file
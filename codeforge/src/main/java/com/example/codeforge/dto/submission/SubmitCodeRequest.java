@@ -1,5 +1,6 @@
 package com.example.codeforge.dto.submission;
 
+import com.example.codeforge.entity.JudgingPolicy;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -8,4 +9,5 @@ import lombok.Setter;
 public class SubmitCodeRequest {
     private Long problemId;
     private String code;
+    private JudgingPolicy judgingPolicy; // optional, overrides the problem's policy
 }
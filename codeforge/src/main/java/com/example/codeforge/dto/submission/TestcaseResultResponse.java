@@ -13,8 +13,13 @@ import java.time.LocalDateTime;
 public class TestcaseResultResponse {
     private Long testcaseId;
     private Boolean passed;
+    private String verdict;
     private String output;
     private String error;
     private Integer executionTime;
+    private Integer cpuTime;
+    private Integer peakMemoryKb;
+    private Long mismatchOffset;
+    private PhaseTimingsResponse phaseTimings;  // null when not timed
     private LocalDateTime createdAt;
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.example.codeforge.dto.submission;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+// ✅ Pushed on /api/submissions/{id}/events as each testcase finishes
+@Getter
+@Setter
+@AllArgsConstructor
+@Builder
+public class TestcaseVerdictEvent {
+    private Long submissionId;
+    private Long testcaseId;
+    private String verdict;          // PASSED | FAILED | ERROR | TIMEOUT | MEMORY_LIMIT | SKIPPED
+    private Boolean passed;
+    private Integer executionTime;   // milliseconds
+    private Integer cpuTime;         // milliseconds, null if not measured
+    private Integer peakMemoryKb;    // null if not measured
+}
@@ -0,0 +1,10 @@
+package com.example.codeforge.entity;
+
+public enum CheckerType {
+    EXACT,             // trimmed output equal; a lone number is compared within 1e-5 (default)
+    TOKENS,            // same whitespace-separated tokens, spacing and line breaks ignored
+    FLOAT_TOKENS,      // like TOKENS, numeric tokens compared within 1e-5 (absolute or relative)
+    UNORDERED_LINES,   // same lines in any order, trailing spaces ignored
+    CASE_INSENSITIVE,  // trimmed output equal ignoring letter case
+    SPECIAL            // the problem's own checker program decides (checkerCode)
+}
@@ -0,0 +1,33 @@
+package com.example.codeforge.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// ✅ A submission waiting for (or held by) a judge worker when execution.judge.queue=DATABASE;
+//    deleted together with the submission's results
+@Entity
+@Table(name = "judge_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JudgeJob {
+
+    @Id
+    @Column(name = "submission_id")
+    private Long submissionId;
+
+    @Column(length = 100)
+    private String claimedBy; // worker node id, null while queued
+
+    private LocalDateTime heartbeatAt; // refreshed by the claiming node; stale = node gone
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
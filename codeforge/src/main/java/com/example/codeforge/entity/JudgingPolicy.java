@@ -0,0 +1,6 @@
+package com.example.codeforge.entity;
+
+public enum JudgingPolicy {
+    RUN_ALL,    // judge every testcase
+    FAIL_FAST   // stop at the first non-passing testcase, rest are SKIPPED
+}
@@ -36,6 +36,17 @@ public class Problem {
     @Column(length = 500)
     private String tags; // comma separated
 
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private JudgingPolicy judgingPolicy; // null = RUN_ALL
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private CheckerType checker; // null = EXACT
+
+    @Column(columnDefinition = "LONGTEXT")
+    private String checkerCode; // Python check(input, expected, output), SPECIAL only
+
     @Column(nullable = false)
     private Boolean isActive = true;
 
@@ -37,6 +37,10 @@ public class Submission {
     @Column(columnDefinition = "LONGTEXT")
     private String output; // stdout or error
 
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private JudgingPolicy judgingPolicy;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
@@ -27,6 +27,9 @@ public class SubmissionResult {
     
     @Column(nullable = false)
     private Boolean passed;
+
+    @Column(length = 20)
+    private String verdict; // PASSED | FAILED | ERROR | TIMEOUT | MEMORY_LIMIT | SKIPPED
     
     @Column(columnDefinition = "LONGTEXT")
     private String output;
@@ -36,6 +39,34 @@ public class SubmissionResult {
     
     @Column(name = "execution_time")
     private Integer executionTime; // milliseconds
+
+    @Column(name = "cpu_time")
+    private Integer cpuTime; // milliseconds, user + sys
+
+    @Column(name = "peak_memory_kb")
+    private Integer peakMemoryKb;
+
+    // Per-phase breakdown in microseconds; execution_time is the run phase. Null when not timed.
+    @Column(name = "setup_micros")
+    private Integer setupMicros;
+
+    @Column(name = "spawn_micros")
+    private Integer spawnMicros;
+
+    @Column(name = "run_micros")
+    private Integer runMicros;
+
+    @Column(name = "capture_micros")
+    private Integer captureMicros;
+
+    @Column(name = "judge_micros")
+    private Integer judgeMicros;
+
+    @Column(name = "cleanup_micros")
+    private Integer cleanupMicros;
+
+    @Column(name = "mismatch_offset")
+    private Long mismatchOffset; // first wrong stdout byte, null when unknown
     
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
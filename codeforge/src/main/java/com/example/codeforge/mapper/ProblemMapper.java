@@ -1,6 +1,8 @@
 package com.example.codeforge.mapper;
 
 import com.example.codeforge.dto.problem.ProblemResponse;
+import com.example.codeforge.entity.CheckerType;
+import com.example.codeforge.entity.JudgingPolicy;
 import com.example.codeforge.entity.Problem;
 
 public class ProblemMapper {
@@ -16,6 +18,12 @@ public class ProblemMapper {
                 .constraints(problem.getConstraints())     // ✅ ADD
                 .difficulty(problem.getDifficulty())
                 .tags(problem.getTags())
+                .judgingPolicy(problem.getJudgingPolicy() == null
+                        ? JudgingPolicy.RUN_ALL.name()
+                        : problem.getJudgingPolicy().name())
+                .checker(problem.getChecker() == null
+                        ? CheckerType.EXACT.name()
+                        : problem.getChecker().name())
                 .build();
     }
 }
\ No newline at end of file
@@ -2,10 +2,13 @@ package com.example.codeforge.mapper;
 
 import com.example.codeforge.dto.submission.SubmissionDetailResponse;
 import com.example.codeforge.dto.submission.SubmissionResponse;
+import com.example.codeforge.dto.submission.PhaseTimingsResponse;
 import com.example.codeforge.dto.submission.TestcaseResultResponse;
 import com.example.codeforge.entity.Submission;
 import com.example.codeforge.entity.SubmissionResult;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class SubmissionMapper {
@@ -36,9 +39,14 @@ public class SubmissionMapper {
                 .map(result -> TestcaseResultResponse.builder()
                         .testcaseId(result.getTestcase().getId())
                         .passed(result.getPassed())
+                        .verdict(result.getVerdict())
                         .output(result.getOutput())
                         .error(result.getError())
                         .executionTime(result.getExecutionTime())
+                        .cpuTime(result.getCpuTime())
+                        .peakMemoryKb(result.getPeakMemoryKb())
+                        .mismatchOffset(result.getMismatchOffset())
+                        .phaseTimings(toPhaseTimings(result))
                         .createdAt(result.getCreatedAt())
                         .build())
                 .collect(Collectors.toList());
@@ -53,7 +61,49 @@ public class SubmissionMapper {
         .passedTestcases(passedCount)
         .createdAt(submission.getCreatedAt())
         .testcaseResults(testcaseResults)
+        .phaseTotals(totalPhaseTimings(testcaseResults))
         .build();
 
     }
+
+    private static PhaseTimingsResponse toPhaseTimings(SubmissionResult result) {
+        if (result.getRunMicros() == null && result.getSetupMicros() == null) {
+            return null; // not timed (skipped, rejected before running, or an older result)
+        }
+        return PhaseTimingsResponse.builder()
+                .setupMicros(toLong(result.getSetupMicros()))
+                .spawnMicros(toLong(result.getSpawnMicros()))
+                .runMicros(toLong(result.getRunMicros()))
+                .captureMicros(toLong(result.getCaptureMicros()))
+                .judgeMicros(toLong(result.getJudgeMicros()))
+                .cleanupMicros(toLong(result.getCleanupMicros()))
+                .build();
+    }
+
+    // ✅ Sum per phase over the testcases that measured it
+    private static PhaseTimingsResponse totalPhaseTimings(List<TestcaseResultResponse> results) {
+        List<PhaseTimingsResponse> timed = results.stream()
+                .map(TestcaseResultResponse::getPhaseTimings)
+                .filter(Objects::nonNull)
+                .toList();
+        if (timed.isEmpty()) {
+            return null;
+        }
+        return PhaseTimingsResponse.builder()
+                .setupMicros(sum(timed, PhaseTimingsResponse::getSetupMicros))
+                .spawnMicros(sum(timed, PhaseTimingsResponse::getSpawnMicros))
+                .runMicros(sum(timed, PhaseTimingsResponse::getRunMicros))
+                .captureMicros(sum(timed, PhaseTimingsResponse::getCaptureMicros))
+                .judgeMicros(sum(timed, PhaseTimingsResponse::getJudgeMicros))
+                .cleanupMicros(sum(timed, PhaseTimingsResponse::getCleanupMicros))
+                .build();
+    }
+
+    private static Long sum(List<PhaseTimingsResponse> timed, Function<PhaseTimingsResponse, Long> phase) {
+        return timed.stream().map(phase).filter(Objects::nonNull).mapToLong(Long::longValue).sum();
+    }
+
+    private static Long toLong(Integer value) {
+        return value == null ? null : value.longValue();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.example.codeforge.repository;
+
+import com.example.codeforge.entity.JudgeJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface JudgeJobRepository extends JpaRepository<JudgeJob, Long> {
+
+    // ✅ SKIP LOCKED: workers on every node take different jobs without waiting on each other
+    // ❗ Leases run on the database clock: node clocks may disagree
+    @Query(nativeQuery = true, value = "SELECT * FROM judge_jobs "
+            + "WHERE claimed_by IS NULL OR heartbeat_at < TIMESTAMPADD(SECOND, -:leaseSeconds, NOW()) "
+            + "ORDER BY submission_id LIMIT 1 FOR UPDATE SKIP LOCKED")
+    List<JudgeJob> findClaimable(@Param("leaseSeconds") long leaseSeconds);
+
+    // Called with the row still locked by findClaimable
+    @Modifying
+    @Query(nativeQuery = true, value = "UPDATE judge_jobs "
+            + "SET claimed_by = :node, heartbeat_at = NOW(), attempts = attempts + 1 "
+            + "WHERE submission_id = :submissionId")
+    int claim(@Param("submissionId") Long submissionId, @Param("node") String node);
+
+    // Plain insert: save() would look the assigned id up first
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO judge_jobs (submission_id, attempts, created_at) "
+            + "VALUES (:submissionId, 0, :now)")
+    void insert(@Param("submissionId") Long submissionId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "UPDATE judge_jobs SET heartbeat_at = NOW() WHERE claimed_by = :node")
+    int heartbeat(@Param("node") String node);
+
+    // ✅ 0 = the job was reclaimed by another node (or is gone): it is not ours to finish
+    @Modifying
+    @Query("delete from JudgeJob j where j.submissionId = :submissionId and j.claimedBy = :node")
+    int deleteClaimed(@Param("submissionId") Long submissionId, @Param("node") String node);
+
+    @Modifying
+    @Query("delete from JudgeJob j where j.submissionId in :ids")
+    int deleteBySubmissionIdIn(@Param("ids") Collection<Long> ids);
+
+    long countByClaimedByIsNull();
+
+    // Unjudged submissions without a job (queued in memory before the switch, or lost)
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO judge_jobs (submission_id, attempts, created_at) "
+            + "SELECT s.id, 0, :now FROM submissions s WHERE s.status IN ('PENDING', 'RUNNING') "
+            + "AND NOT EXISTS (SELECT 1 FROM judge_jobs j WHERE j.submission_id = s.id)")
+    int adoptUnqueued(@Param("now") LocalDateTime now);
+}
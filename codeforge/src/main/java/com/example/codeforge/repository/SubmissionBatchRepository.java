@@ -0,0 +1,12 @@
+package com.example.codeforge.repository;
+
+import com.example.codeforge.entity.Submission;
+
+import java.util.List;
+
+// ✅ Final status writes for many submissions at once, without loading them first
+public interface SubmissionBatchRepository {
+
+    // Batched UPDATE of status and output by id
+    void updateOutcomes(List<Submission> submissions);
+}
@@ -0,0 +1,28 @@
+package com.example.codeforge.repository;
+
+import com.example.codeforge.entity.Submission;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+class SubmissionBatchRepositoryImpl implements SubmissionBatchRepository {
+
+    private static final String UPDATE = "UPDATE submissions SET status = ?, output = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void updateOutcomes(List<Submission> submissions) {
+        if (submissions.isEmpty()) {
+            return;
+        }
+        // ❗ Joins the caller's transaction
+        jdbcTemplate.batchUpdate(UPDATE, submissions, submissions.size(), (ps, submission) -> {
+            ps.setString(1, submission.getStatus().name());
+            ps.setString(2, submission.getOutput());
+            ps.setLong(3, submission.getId());
+        });
+    }
+}
@@ -3,13 +3,19 @@ package com.example.codeforge.repository;
 import com.example.codeforge.entity.Submission;
 import com.example.codeforge.entity.SubmissionStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface SubmissionRepository extends JpaRepository<Submission, Long> {
+public interface SubmissionRepository
+        extends JpaRepository<Submission, Long>, SubmissionBatchRepository {
 
     // Lists
     List<Submission> findByUserId(Long userId);
@@ -21,4 +27,21 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
     long countByUserId(Long userId);
 
     long countByUserIdAndStatus(Long userId, SubmissionStatus status);
+
+    // Final statuses for live event streams judged on another node
+    List<Submission> findByIdInAndStatusNotIn(Collection<Long> ids, Collection<SubmissionStatus> statuses);
+
+    // Recovery after a restart (ids only: the judge loads each one itself)
+    @Query("select s.id from Submission s where s.status in :statuses and s.createdAt < :before order by s.id")
+    List<Long> findIdsByStatusInAndCreatedAtBefore(
+            @Param("statuses") Collection<SubmissionStatus> statuses,
+            @Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query("update Submission s set s.status = com.example.codeforge.entity.SubmissionStatus.ERROR, "
+            + "s.output = :output where s.status in :statuses and s.createdAt < :before")
+    int failByStatusInAndCreatedAtBefore(
+            @Param("statuses") Collection<SubmissionStatus> statuses,
+            @Param("before") LocalDateTime before,
+            @Param("output") String output);
 }
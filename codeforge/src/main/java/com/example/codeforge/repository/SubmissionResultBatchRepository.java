@@ -0,0 +1,12 @@
+package com.example.codeforge.repository;
+
+import com.example.codeforge.entity.SubmissionResult;
+
+import java.util.List;
+
+// ✅ Bulk writes Hibernate can't batch (IDENTITY ids turn every persist into its own INSERT)
+public interface SubmissionResultBatchRepository {
+
+    // One batched INSERT for all results of a submission; generated ids are not read back
+    void insertAll(List<SubmissionResult> results);
+}
@@ -0,0 +1,72 @@
+package com.example.codeforge.repository;
+
+import com.example.codeforge.entity.SubmissionResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+class SubmissionResultBatchRepositoryImpl implements SubmissionResultBatchRepository {
+
+    private static final String INSERT = """
+            INSERT INTO submission_results (
+                submission_id, testcase_id, passed, verdict, output, error,
+                execution_time, cpu_time, peak_memory_kb,
+                setup_micros, spawn_micros, run_micros, capture_micros, judge_micros, cleanup_micros,
+                mismatch_offset, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<SubmissionResult> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+
+        // ❗ Joins the caller's transaction; with rewriteBatchedStatements the driver sends one multi-row INSERT
+        jdbcTemplate.batchUpdate(INSERT, results, results.size(), (ps, result) -> {
+            if (result.getCreatedAt() == null) {
+                result.setCreatedAt(now); // what @PrePersist would have done
+            }
+            int i = 0;
+            ps.setLong(++i, result.getSubmission().getId());
+            ps.setLong(++i, result.getTestcase().getId());
+            ps.setBoolean(++i, result.getPassed());
+            ps.setString(++i, result.getVerdict());
+            ps.setString(++i, result.getOutput());
+            ps.setString(++i, result.getError());
+            setInt(ps, ++i, result.getExecutionTime());
+            setInt(ps, ++i, result.getCpuTime());
+            setInt(ps, ++i, result.getPeakMemoryKb());
+            setInt(ps, ++i, result.getSetupMicros());
+            setInt(ps, ++i, result.getSpawnMicros());
+            setInt(ps, ++i, result.getRunMicros());
+            setInt(ps, ++i, result.getCaptureMicros());
+            setInt(ps, ++i, result.getJudgeMicros());
+            setInt(ps, ++i, result.getCleanupMicros());
+            if (result.getMismatchOffset() == null) {
+                ps.setNull(++i, Types.BIGINT);
+            } else {
+                ps.setLong(++i, result.getMismatchOffset());
+            }
+            ps.setTimestamp(++i, Timestamp.valueOf(result.getCreatedAt()));
+        });
+    }
+
+    private static void setInt(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+}
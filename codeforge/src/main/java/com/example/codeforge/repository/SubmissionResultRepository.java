@@ -6,7 +6,8 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface SubmissionResultRepository extends JpaRepository<SubmissionResult, Long> {
+public interface SubmissionResultRepository
+        extends JpaRepository<SubmissionResult, Long>, SubmissionResultBatchRepository {
     
     List<SubmissionResult> findBySubmissionId(Long submissionId);
     
@@ -0,0 +1,254 @@
+package com.example.codeforge.service;
+
+import com.example.codeforge.entity.JudgeJob;
+import com.example.codeforge.repository.JudgeJobRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Judge queue kept in the {@code judge_jobs} table, shared by every node
+ * running against the same database.
+ *
+ * API nodes only insert a job next to each new submission. Nodes with
+ * {@code execution.judge.worker=true} (e.g. the {@code worker} profile) claim
+ * jobs one at a time with {@code SELECT ... FOR UPDATE SKIP LOCKED}, judge
+ * them, and heartbeat every job they hold until its results are stored,
+ * which deletes the job. A job whose heartbeat is older than
+ * {@code execution.judge.lease-seconds} (by the database clock) belongs to a
+ * dead node and is claimed again, resuming after the testcases that already
+ * have results. A node that lost its job this way stores nothing for it.
+ */
+@Component
+@ConditionalOnProperty(name = "execution.judge.queue", havingValue = "DATABASE")
+@RequiredArgsConstructor
+@Slf4j
+public class DatabaseJudgeQueue implements JudgeQueue {
+
+    private final JudgeJobRepository jobRepository;
+    private final JudgeService judgeService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${execution.judge.worker:true}")
+    private boolean worker; // false = API-only node, never judges
+
+    @Value("${execution.judge.workers:0}")
+    private int workerCount; // 0 = one per core
+
+    @Value("${execution.judge.node-id:}")
+    private String nodeId; // blank = pid@hostname
+
+    @Value("${execution.judge.poll-interval-ms:500}")
+    private long pollIntervalMs;
+
+    @Value("${execution.judge.heartbeat-seconds:5}")
+    private long heartbeatSeconds;
+
+    @Value("${execution.judge.lease-seconds:30}")
+    private long leaseSeconds;
+
+    @Value("${execution.judge.max-attempts:3}")
+    private int maxAttempts; // claims before a job is given up as ERROR
+
+    @Value("${execution.judge.shutdown-grace-seconds:10}")
+    private long shutdownGraceSeconds;
+
+    // A claimed job; exhausted = claimed too often already, fail it instead of judging
+    private record Claim(Long submissionId, boolean exhausted) {}
+
+    private final List<Thread> workers = new ArrayList<>();
+    private Thread heartbeat;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = ManagementFactory.getRuntimeMXBean().getName();
+        }
+        Gauge.builder("codeforge.judge.queue.depth", jobRepository, r -> r.countByClaimedByIsNull())
+                .description("Submissions waiting for a judge worker")
+                .register(meterRegistry);
+
+        if (!worker) {
+            log.info("Database judge queue: node {} only enqueues", nodeId);
+            return;
+        }
+
+        adoptUnqueued();
+        running = true;
+
+        int count = workerCount > 0 ? workerCount : Runtime.getRuntime().availableProcessors();
+        for (int i = 1; i <= count; i++) {
+            Thread thread = new Thread(this::work, "judge-worker-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            workers.add(thread);
+        }
+        heartbeat = new Thread(this::heartbeat, "judge-heartbeat");
+        heartbeat.setDaemon(true);
+        heartbeat.start();
+        log.info("Database judge queue: node {} judging with {} workers (lease {}s)", nodeId, count, leaseSeconds);
+    }
+
+    @Override
+    public boolean hasCapacity() {
+        return true; // the table is the buffer
+    }
+
+    @Override
+    public int depth() {
+        return (int) jobRepository.countByClaimedByIsNull();
+    }
+
+    @Override
+    public void enqueue(Long submissionId) {
+        // ✅ Joins the caller's transaction: the job exists exactly when the submission does
+        jobRepository.insert(submissionId, LocalDateTime.now());
+    }
+
+    // ❗ Submissions left behind by the in-memory queue or a lost insert would never be judged
+    private void adoptUnqueued() {
+        try {
+            Integer adopted = transactionTemplate.execute(status -> jobRepository.adoptUnqueued(LocalDateTime.now()));
+            if (adopted != null && adopted > 0) {
+                log.info("Queued {} unjudged submissions that had no judge job", adopted);
+            }
+        } catch (RuntimeException e) {
+            // Another node adopting at the same time
+            log.warn("Could not adopt unqueued submissions: {}", e.toString());
+        }
+    }
+
+    // ---------- WORKERS ----------
+
+    private void work() {
+        while (running) {
+            Claim claim;
+            try {
+                claim = transactionTemplate.execute(status -> claimNext());
+            } catch (RuntimeException e) {
+                log.warn("Claiming a judge job failed: {}", e.toString());
+                claim = null;
+            }
+            if (claim == null) {
+                if (!sleep(pollIntervalMs)) {
+                    return;
+                }
+                continue;
+            }
+
+            Long submissionId = claim.submissionId();
+            try {
+                if (claim.exhausted()) {
+                    log.error("Submission {} claimed {} times without finishing, giving up", submissionId, maxAttempts);
+                    judgeService.markError(submissionId, "Judge failure");
+                } else if (!judgeService.resume(submissionId, nodeId)) {
+                    release(submissionId); // already judged
+                }
+            } catch (JudgeInterruptedException e) {
+                // ❗ Nothing stored: the job stays claimed and is reclaimed once the lease runs out
+                log.info("Submission {} left to another node at shutdown", submissionId);
+                return;
+            } catch (Exception e) {
+                log.error("Judging submission {} failed", submissionId, e);
+                fail(submissionId);
+            }
+        }
+    }
+
+    private Claim claimNext() {
+        List<JudgeJob> jobs = jobRepository.findClaimable(leaseSeconds);
+        if (jobs.isEmpty()) {
+            return null;
+        }
+        JudgeJob job = jobs.get(0);
+        if (job.getClaimedBy() != null) {
+            log.warn("Reclaiming submission {} from unresponsive node {}", job.getSubmissionId(), job.getClaimedBy());
+        }
+        if (job.getAttempts() >= maxAttempts) {
+            // ❗ Removed while still locked, or the next worker would take it too
+            jobRepository.delete(job);
+            return new Claim(job.getSubmissionId(), true);
+        }
+
+        // The row lock keeps other workers off it until this commits
+        jobRepository.claim(job.getSubmissionId(), nodeId);
+        return new Claim(job.getSubmissionId(), false);
+    }
+
+    private void fail(Long submissionId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // ❗ Reclaimed by another node meanwhile: that one owns the outcome now
+                if (jobRepository.deleteClaimed(submissionId, nodeId) > 0) {
+                    judgeService.markError(submissionId, "Judge failure");
+                }
+            });
+        } catch (Exception ex) {
+            // Job stays claimed; reclaimed once the lease runs out
+            log.error("Could not mark submission {} as ERROR", submissionId, ex);
+        }
+    }
+
+    private void release(Long submissionId) {
+        transactionTemplate.executeWithoutResult(status -> jobRepository.deleteClaimed(submissionId, nodeId));
+    }
+
+    // ✅ Covers jobs still waiting in the result writer too: they are held until deleted
+    private void heartbeat() {
+        while (running) {
+            if (!sleep(TimeUnit.SECONDS.toMillis(heartbeatSeconds))) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        jobRepository.heartbeat(nodeId));
+            } catch (RuntimeException e) {
+                log.warn("Judge heartbeat failed: {}", e.toString());
+            }
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // ✅ Same drain as the in-memory queue; unfinished jobs go to another node after the lease
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(shutdownGraceSeconds);
+        for (Thread thread : workers) {
+            thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        }
+
+        long stuck = workers.stream().filter(Thread::isAlive).count();
+        if (stuck > 0) {
+            log.warn("Interrupting {} judge workers still busy after {}s", stuck, shutdownGraceSeconds);
+            workers.forEach(Thread::interrupt);
+        }
+        if (heartbeat != null) {
+            heartbeat.interrupt();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.codeforge.service;
+
+import com.example.codeforge.dto.execution.ResultCacheStatsResponse;
+import com.example.codeforge.entity.Testcase;
+import com.example.codeforge.utils.CodeExecutionUtil;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.example.codeforge.utils.CodeExecutionUtil.sha256;
+
+// ✅ Remembers verdicts for identical (code, testcase) pairs so resubmissions skip execution
+@Component
+@Slf4j
+public class ExecutionResultCache {
+
+    @Value("${execution.result-cache.max-entries:2000}")
+    private int maxEntries; // 0 = disabled
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private Map<Key, CodeExecutionUtil.ExecutionResult> entries; // LRU, guarded by itself
+
+    // testcase content hash makes an edited testcase a different key; the checker decides the verdict too
+    private record Key(String codeHash, Long testcaseId, String testcaseHash, String checkerId) {}
+
+    @PostConstruct
+    void init() {
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CodeExecutionUtil.ExecutionResult> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return maxEntries > 0;
+    }
+
+    // Hash once per submission, then pass to get/put for each testcase
+    public String codeHash(String code) {
+        // CRLF and trailing whitespace at the end of the file never change behaviour
+        return sha256(code.replace("\r\n", "\n").stripTrailing());
+    }
+
+    public CodeExecutionUtil.ExecutionResult get(String codeHash, Testcase tc, String checkerId) {
+        if (!isEnabled()) return null;
+
+        CodeExecutionUtil.ExecutionResult result;
+        synchronized (entries) {
+            result = entries.get(key(codeHash, tc, checkerId));
+        }
+
+        (result != null ? hits : misses).incrementAndGet();
+        return result;
+    }
+
+    public void put(String codeHash, Testcase tc, String checkerId, CodeExecutionUtil.ExecutionResult result) {
+        // ❗ Only verdicts decided by the program's output; timeouts and errors may be transient
+        if (!isEnabled() || !("PASSED".equals(result.verdict()) || "FAILED".equals(result.verdict()))) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key(codeHash, tc, checkerId), result);
+        }
+    }
+
+    public void invalidateTestcase(Long testcaseId) {
+        if (!isEnabled()) return;
+
+        int removed;
+        synchronized (entries) {
+            int before = entries.size();
+            entries.keySet().removeIf(key -> key.testcaseId().equals(testcaseId));
+            removed = before - entries.size();
+        }
+        log.debug("Invalidated {} cached results for testcase {}", removed, testcaseId);
+    }
+
+    public ResultCacheStatsResponse stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return ResultCacheStatsResponse.builder()
+                .enabled(isEnabled())
+                .hits(hits.get())
+                .misses(misses.get())
+                .size(size)
+                .maxEntries(maxEntries)
+                .build();
+    }
+
+    // checkerId: the checker type, plus the program's hash for special judges
+    private static Key key(String codeHash, Testcase tc, String checkerId) {
+        return new Key(codeHash, tc.getId(), sha256(tc.getInput() + '\0' + tc.getExpectedOutput()), checkerId);
+    }
+}
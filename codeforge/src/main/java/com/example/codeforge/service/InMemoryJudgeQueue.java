@@ -0,0 +1,164 @@
+package com.example.codeforge.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process queue of submission ids waiting to be judged.
+ *
+ * Dedicated worker threads take ids and hand them to {@link JudgeService},
+ * so HTTP request threads never wait on code execution. A slot is reserved
+ * while the submission's transaction is still open, so a full queue rejects
+ * the submission instead of leaving a committed row no worker will take.
+ */
+@Component
+@ConditionalOnProperty(name = "execution.judge.queue", havingValue = "MEMORY", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryJudgeQueue implements JudgeQueue {
+
+    private static final long IDLE_POLL_MS = 500;
+
+    private final JudgeService judgeService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${execution.judge.workers:0}")
+    private int workerCount; // 0 = one per core
+
+    @Value("${execution.judge.queue-capacity:1000}")
+    private int capacity;
+
+    @Value("${execution.judge.shutdown-grace-seconds:10}")
+    private long shutdownGraceSeconds;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private Semaphore slots; // queued plus reserved by uncommitted submissions
+    private BlockingQueue<Long> queue;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        int count = workerCount > 0 ? workerCount : Runtime.getRuntime().availableProcessors();
+        slots = new Semaphore(capacity);
+        queue = new ArrayBlockingQueue<>(capacity);
+        running = true;
+
+        for (int i = 1; i <= count; i++) {
+            Thread worker = new Thread(this::work, "judge-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        Gauge.builder("codeforge.judge.queue.depth", queue, BlockingQueue::size)
+                .description("Submissions waiting for a judge worker")
+                .register(meterRegistry);
+        log.info("Judge queue started with {} workers (capacity {})", count, capacity);
+    }
+
+    @Override
+    public boolean hasCapacity() {
+        return slots.availablePermits() > 0;
+    }
+
+    @Override
+    public int depth() {
+        return queue.size();
+    }
+
+    @Override
+    public void enqueue(Long submissionId) {
+        if (!slots.tryAcquire()) {
+            throw new JudgeQueueFullException();
+        }
+
+        // ✅ Only hand over once the PENDING row is visible to the worker's transaction
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        offer(submissionId);
+                    } else {
+                        slots.release();
+                    }
+                }
+            });
+        } else {
+            offer(submissionId);
+        }
+    }
+
+    // Always has room: the slot was reserved in enqueue
+    private void offer(Long submissionId) {
+        queue.add(submissionId);
+        log.debug("Submission {} queued (depth {})", submissionId, queue.size());
+    }
+
+    private void work() {
+        while (running) {
+            Long submissionId;
+            try {
+                // Wakes up now and then so a draining worker notices it should stop
+                submissionId = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (submissionId == null) {
+                continue;
+            }
+            slots.release();
+
+            try {
+                judgeService.judge(submissionId);
+            } catch (JudgeInterruptedException e) {
+                // ❗ Nothing stored: left RUNNING, rejudged by recovery on the next start
+                log.info("Submission {} left RUNNING at shutdown", submissionId);
+                return;
+            } catch (Exception e) {
+                log.error("Judging submission {} failed", submissionId, e);
+                try {
+                    judgeService.markError(submissionId, "Judge failure");
+                } catch (Exception ex) {
+                    log.error("Could not mark submission {} as ERROR", submissionId, ex);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // ✅ Drain: stop taking work and let in-flight submissions finish
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(shutdownGraceSeconds);
+        for (Thread worker : workers) {
+            worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        }
+
+        // ❗ Still judging after the grace period: interrupt, which kills their processes
+        //    and abandons those submissions to recovery
+        long stuck = workers.stream().filter(Thread::isAlive).count();
+        if (stuck > 0) {
+            log.warn("Interrupting {} judge workers still busy after {}s", stuck, shutdownGraceSeconds);
+            workers.forEach(Thread::interrupt);
+        }
+        if (!queue.isEmpty()) {
+            log.info("{} queued submissions left PENDING at shutdown", queue.size());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.codeforge.service;
+
+/**
+ * Judging was interrupted (shutdown) before every testcase had a verdict.
+ * Nothing is written: the submission stays RUNNING, and its judge job
+ * claimed, so it is resumed by recovery or by another node.
+ */
+public class JudgeInterruptedException extends RuntimeException {
+
+    public JudgeInterruptedException(Long submissionId) {
+        super("Judging submission " + submissionId + " was interrupted");
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.codeforge.service;
+
+import com.example.codeforge.utils.CodeExecutionUtil;
+import com.example.codeforge.utils.ExecutionMode;
+import com.example.codeforge.utils.ProcessReaper;
+import com.example.codeforge.utils.WorkspacePool;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Judge metrics, published through Actuator ({@code /actuator/metrics},
+ * {@code /actuator/prometheus}). Per-testcase meters are tagged by execution
+ * mode; only the verdict counters also carry the problem, so the histogram
+ * series stay fixed as problems are added. Queue depth is registered by
+ * {@link JudgeQueue}.
+ */
+@Component
+public class JudgeMetrics {
+
+    private final MeterRegistry registry;
+    private final String mode;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public JudgeMetrics(
+            MeterRegistry registry,
+            ProcessReaper processReaper,
+            WorkspacePool workspacePool,
+            @Value("${execution.mode:PROCESS}") ExecutionMode executionMode) {
+
+        this.registry = registry;
+        this.mode = executionMode.name();
+
+        Gauge.builder("codeforge.judge.executions.in.flight", inFlight, AtomicInteger::get)
+                .description("Testcase runs (or batch harness runs) executing right now")
+                .register(registry);
+        Gauge.builder("codeforge.judge.processes.live", processReaper, ProcessReaper::liveCount)
+                .description("Process trees started for judging and not yet reaped")
+                .register(registry);
+        FunctionCounter.builder("codeforge.judge.cleanup.failures", workspacePool, WorkspacePool::cleanupFailures)
+                .description("Workspaces that could not be emptied after a run")
+                .register(registry);
+    }
+
+    // ---------- EXECUTION ----------
+
+    public void executionStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    public void executionFinished() {
+        inFlight.decrementAndGet();
+    }
+
+    /** Timings of a run that actually executed (not served from the result cache). */
+    public void recordRun(CodeExecutionUtil.ExecutionResult result) {
+        if (result.phases() != null && result.phases().spawnMicros() >= 0) {
+            latency("codeforge.judge.spawn", "Process start, or fork from the zygote")
+                    .record(result.phases().spawnMicros(), TimeUnit.MICROSECONDS);
+        }
+        if (result.executionTimeMs() >= 0) {
+            latency("codeforge.judge.run", "User-code runtime (executionTime)")
+                    .record(result.executionTimeMs(), TimeUnit.MILLISECONDS);
+        }
+        if (result.outputTruncated()) {
+            Counter.builder("codeforge.judge.output.truncated")
+                    .description("Runs whose output went past the capture or judging limit")
+                    .tags("mode", mode)
+                    .register(registry)
+                    .increment();
+        }
+    }
+
+    // ---------- VERDICTS ----------
+
+    /** Every stored testcase verdict, cached and skipped ones included; timeouts are verdict=TIMEOUT. */
+    public void recordVerdict(Long problemId, String verdict) {
+        Counter.builder("codeforge.judge.verdicts")
+                .description("Testcase verdicts")
+                .tags("problem", String.valueOf(problemId), "verdict", verdict, "mode", mode)
+                .register(registry)
+                .increment();
+    }
+
+    // ❗ No problem tag: each histogram is ~70 bucket series per tag combination
+    private Timer latency(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .tags("mode", mode)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.codeforge.service;
+
+/**
+ * Submissions waiting to be judged, selected with {@code execution.judge.queue}:
+ * {@link InMemoryJudgeQueue} (default) or {@link DatabaseJudgeQueue}.
+ */
+public interface JudgeQueue {
+
+    boolean hasCapacity();
+
+    int depth();
+
+    // ✅ Called inside the transaction that stored the PENDING submission;
+    //    throws JudgeQueueFullException (rolling it back) when there is no room
+    void enqueue(Long submissionId);
+}
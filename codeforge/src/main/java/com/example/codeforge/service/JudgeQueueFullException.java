@@ -0,0 +1,25 @@
+package com.example.codeforge.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * The judge queue has no room for another submission. Answered with
+ * 503 and a {@code Retry-After} header; the submission is not stored.
+ */
+public class JudgeQueueFullException extends ResponseStatusException {
+
+    private static final long RETRY_AFTER_SECONDS = 5;
+
+    public JudgeQueueFullException() {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Judge queue is full, please retry shortly");
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER_SECONDS));
+        return headers;
+    }
+}
@@ -0,0 +1,552 @@
+package com.example.codeforge.service;
+
+import com.example.codeforge.dto.submission.SubmissionResponse;
+import com.example.codeforge.dto.submission.TestcaseVerdictEvent;
+import com.example.codeforge.entity.*;
+import com.example.codeforge.mapper.SubmissionMapper;
+import com.example.codeforge.repository.*;
+import com.example.codeforge.utils.Checker;
+import com.example.codeforge.utils.Checkers;
+import com.example.codeforge.utils.CodeExecutionUtil;
+import com.example.codeforge.utils.ExecutionMode;
+import com.example.codeforge.utils.ProcessReaper;
+import com.example.codeforge.utils.PythonBatchRunner;
+import com.example.codeforge.utils.PythonCompiler;
+import com.example.codeforge.utils.PythonWorkerPool;
+import com.example.codeforge.utils.PythonZygote;
+import com.example.codeforge.utils.SpecialJudge;
+import com.example.codeforge.utils.WorkspacePool;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+// ✅ Runs queued submissions against their testcases (called by JudgeQueue workers,
+//    and by SubmissionRecovery for submissions interrupted by a restart)
+// ❗ No transaction around execution: a DB connection is held only to claim the
+//    submission; results are stored write-behind by ResultWriter
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JudgeService {
+
+    private final TestcaseRepository testcaseRepository;
+    private final SubmissionRepository submissionRepository;
+    private final SubmissionResultRepository submissionResultRepository;
+    private final PythonWorkerPool pythonWorkerPool;
+    private final PythonZygote pythonZygote;
+    private final PythonBatchRunner pythonBatchRunner;
+    private final WorkspacePool workspacePool;
+    private final ProcessReaper processReaper;
+    private final ExecutionResultCache resultCache;
+    private final PythonCompiler pythonCompiler;
+    private final SpecialJudge specialJudge;
+    private final JudgeMetrics metrics;
+    private final ExecutorService testcaseExecutor;
+    private final SubmissionEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ResultWriter resultWriter;
+
+    @Value("${execution.mode:PROCESS}")
+    private ExecutionMode executionMode;
+
+    // Everything execution needs, loaded before the claiming transaction commits;
+    // testcases are the ones still to run, earlier their results stored before a restart
+    private record JudgeRun(
+            Submission submission,
+            List<Testcase> testcases,
+            List<SubmissionResult> earlier,
+            ProblemChecker checker) {}
+
+    public void judge(Long submissionId) {
+        judge(submissionId, false, null);
+    }
+
+    // ✅ Also takes RUNNING submissions and skips testcases that already have results;
+    //    false when there was nothing to judge (final status already stored)
+    // ❗ Both throw JudgeInterruptedException when interrupted: nothing is stored then
+    public boolean resume(Long submissionId) {
+        return judge(submissionId, true, null);
+    }
+
+    // Database queue: results are only stored while node still holds the submission's judge job
+    public boolean resume(Long submissionId, String node) {
+        return judge(submissionId, true, node);
+    }
+
+    private boolean judge(Long submissionId, boolean resume, String node) {
+
+        // 1. Short transaction: PENDING -> RUNNING
+        JudgeRun run = transactionTemplate.execute(status -> claim(submissionId, resume));
+        if (run == null) {
+            return false;
+        }
+
+        // 2. No connection held while testcases run
+        List<CodeExecutionUtil.ExecutionResult> results = run.testcases().isEmpty()
+                ? List.of()
+                : runTestcases(run.submission(), run.testcases(), run.checker());
+
+        // 3. Results and final status go to the write-behind queue
+        saveResults(run.submission(), run.testcases(), results, run.earlier(), node);
+        return true;
+    }
+
+    private JudgeRun claim(Long submissionId, boolean resume) {
+
+        Submission submission = submissionRepository.findById(submissionId)
+                .orElseThrow(() -> new RuntimeException("Submission not found"));
+
+        boolean claimable = submission.getStatus() == SubmissionStatus.PENDING
+                || (resume && submission.getStatus() == SubmissionStatus.RUNNING);
+        if (!claimable) {
+            log.warn("Submission {} already {}, skipping", submissionId, submission.getStatus());
+            return null;
+        }
+
+        List<Testcase> testcases =
+                testcaseRepository.findByProblemIdAndHiddenFalse(submission.getProblem().getId());
+
+        if (testcases.isEmpty()) {
+            submission.setStatus(SubmissionStatus.ERROR);
+            submission.setOutput("No testcases configured");
+            submissionRepository.save(submission);
+            publishStatusAfterCommit(submission);
+            return null;
+        }
+
+        List<SubmissionResult> earlier = resume
+                ? submissionResultRepository.findBySubmissionId(submissionId)
+                : List.of();
+        if (!earlier.isEmpty()) {
+            Set<Long> done = earlier.stream()
+                    .map(r -> r.getTestcase().getId())
+                    .collect(Collectors.toSet());
+            testcases = testcases.stream()
+                    .filter(tc -> !done.contains(tc.getId()))
+                    .toList();
+            log.info("Resuming submission {}: {} testcases already judged, {} to run",
+                    submissionId, done.size(), testcases.size());
+        }
+
+        submission.setStatus(SubmissionStatus.RUNNING);
+        submissionRepository.save(submission);
+
+        // ✅ Lazy problem read here, while the session is open
+        return new JudgeRun(submission, testcases, earlier, ProblemChecker.of(submission.getProblem()));
+    }
+
+    @Transactional
+    public void markError(Long submissionId, String message) {
+        submissionRepository.findById(submissionId).ifPresent(submission -> {
+            submission.setStatus(SubmissionStatus.ERROR);
+            submission.setOutput(message);
+            submissionRepository.save(submission);
+            publishStatusAfterCommit(submission);
+        });
+    }
+
+    private void saveResults(
+            Submission submission,
+            List<Testcase> testcases,
+            List<CodeExecutionUtil.ExecutionResult> results,
+            List<SubmissionResult> earlier,
+            String node) {
+
+        boolean hasError = false;
+        boolean hasTimeout = false;
+        boolean hasMemoryLimit = false;
+        boolean allPassed = true;
+        int passedCount = 0;
+        int total = earlier.size() + testcases.size();
+        List<SubmissionResult> rows = new ArrayList<>(testcases.size());
+
+        // ✅ Results stored before a restart count towards the outcome but are not written again
+        for (SubmissionResult done : earlier) {
+            hasError |= "ERROR".equals(done.getVerdict());
+            hasTimeout |= "TIMEOUT".equals(done.getVerdict());
+            hasMemoryLimit |= "MEMORY_LIMIT".equals(done.getVerdict());
+            if (Boolean.TRUE.equals(done.getPassed())) {
+                passedCount++;
+            } else {
+                allPassed = false;
+            }
+        }
+
+        for (int i = 0; i < testcases.size(); i++) {
+
+            Testcase tc = testcases.get(i);
+            CodeExecutionUtil.ExecutionResult result = results.get(i);
+            long execTime = result.executionTimeMs();
+
+            // ✅ Add detailed logging for debugging
+            log.debug("Testcase {} execution: verdict={}, passed={}, execTime={}ms",
+                    tc.getId(), result.verdict(), result.passed(), execTime);
+            
+            if (result.stderr() != null && !result.stderr().isEmpty()) {
+                log.debug("Testcase {} stderr: {}", tc.getId(), 
+                        result.stderr().length() > 200 ? result.stderr().substring(0, 200) + "..." : result.stderr());
+            }
+
+            if ("ERROR".equals(result.verdict())) {
+                hasError = true;
+                allPassed = false;
+                log.warn("Testcase {} returned ERROR: {}", tc.getId(), result.stderr());
+            } else if ("TIMEOUT".equals(result.verdict())) {
+                hasTimeout = true;
+                allPassed = false;
+                log.warn("Testcase {} TIMEOUT", tc.getId());
+            } else if ("MEMORY_LIMIT".equals(result.verdict())) {
+                hasMemoryLimit = true;
+                allPassed = false;
+                log.warn("Testcase {} MEMORY_LIMIT ({} KB)", tc.getId(), result.peakMemoryKb());
+            } else if ("SKIPPED".equals(result.verdict())) {
+                allPassed = false;
+                log.debug("Testcase {} SKIPPED", tc.getId());
+            } else if (!result.passed()) {
+                allPassed = false;
+                log.debug("Testcase {} FAILED - expected: {} got: {}", tc.getId(), 
+                        tc.getExpectedOutput(), result.stdout());
+            } else {
+                passedCount++;
+                log.debug("Testcase {} PASSED", tc.getId());
+            }
+
+            SubmissionResult submissionResult = SubmissionResult.builder()
+                    .submission(submission)
+                    .testcase(tc)
+                    .passed(result.passed())
+                    .verdict(result.verdict())
+                    .output(result.stdout())
+                    .error(result.stderr())
+                    .executionTime((int) execTime)
+                    .mismatchOffset(result.mismatchOffset() >= 0 ? result.mismatchOffset() : null)
+                    .cpuTime(measured(result.cpuTimeMs()))
+                    .peakMemoryKb(measured(result.peakMemoryKb()))
+                    .build();
+            applyPhases(submissionResult, result.phases());
+
+            rows.add(submissionResult);
+        }
+
+        if (hasError) {
+            submission.setStatus(SubmissionStatus.ERROR);
+            submission.setOutput("Runtime Error");
+            log.warn("Submission {} marked as ERROR", submission.getId());
+        } else if (hasTimeout) {
+            submission.setStatus(SubmissionStatus.FAILED);
+            submission.setOutput("Time Limit Exceeded");
+            log.warn("Submission {} marked as TIMEOUT", submission.getId());
+        } else if (hasMemoryLimit) {
+            submission.setStatus(SubmissionStatus.FAILED);
+            submission.setOutput("Memory Limit Exceeded");
+            log.warn("Submission {} marked as MEMORY_LIMIT", submission.getId());
+        } else if (allPassed) {
+            submission.setStatus(SubmissionStatus.PASSED);
+            submission.setOutput("Accepted");
+            log.info("Submission {} ACCEPTED - all testcases passed", submission.getId());
+        } else {
+            submission.setStatus(SubmissionStatus.FAILED);
+            submission.setOutput(passedCount + "/" + total + " testcases passed");
+            log.info("Submission {} FAILED - {} passed out of {}", submission.getId(), passedCount, total);
+        }
+
+        // ✅ Batched with other workers' results; the status event follows the commit
+        resultWriter.write(submission, rows, node);
+    }
+
+    // ✅ Final SSE event only once the results are visible to readers
+    private void publishStatusAfterCommit(Submission submission) {
+        SubmissionResponse status = SubmissionMapper.toResponse(submission);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eventPublisher.publishStatus(status);
+            }
+        });
+    }
+
+    private void publishTestcase(Submission submission, Testcase tc, CodeExecutionUtil.ExecutionResult result) {
+        metrics.recordVerdict(submission.getProblem().getId(), result.verdict());
+        eventPublisher.publishTestcase(TestcaseVerdictEvent.builder()
+                .submissionId(submission.getId())
+                .testcaseId(tc.getId())
+                .verdict(result.verdict())
+                .passed(result.passed())
+                .executionTime((int) result.executionTimeMs())
+                .cpuTime(measured(result.cpuTimeMs()))
+                .peakMemoryKb(measured(result.peakMemoryKb()))
+                .build());
+    }
+
+    // -1 means the backend could not measure it
+    private static Integer measured(long value) {
+        return value >= 0 ? (int) value : null;
+    }
+
+    private static void applyPhases(SubmissionResult target, CodeExecutionUtil.PhaseTimings phases) {
+        if (phases == null) {
+            return;
+        }
+        target.setSetupMicros(measured(phases.setupMicros()));
+        target.setSpawnMicros(measured(phases.spawnMicros()));
+        target.setRunMicros(measured(phases.runMicros()));
+        target.setCaptureMicros(measured(phases.captureMicros()));
+        target.setJudgeMicros(measured(phases.judgeMicros()));
+        target.setCleanupMicros(measured(phases.cleanupMicros()));
+    }
+
+    private List<CodeExecutionUtil.ExecutionResult> runTestcases(
+            Submission submission, List<Testcase> testcases, ProblemChecker checker) {
+
+        // ✅ Log submission start
+        log.info("Starting execution for submission {} with {} testcases",
+                submission.getId(), testcases.size());
+
+        boolean failFast = submission.getJudgingPolicy() == JudgingPolicy.FAIL_FAST;
+        AtomicBoolean failed = new AtomicBoolean();
+        String codeHash = resultCache.codeHash(submission.getCode());
+
+        if (executionMode == ExecutionMode.BATCH) {
+            return runBatch(submission, testcases, codeHash, checker, failFast, failed);
+        }
+
+        // ✅ Compiled once per submission (and cached across submissions) for fork-per-run modes
+        byte[] bytecode = executionMode == ExecutionMode.PROCESS || executionMode == ExecutionMode.ZYGOTE
+                ? pythonCompiler.compile(submission.getCode())
+                : null;
+
+        // ✅ Fan out on the shared executor, gather back in testcase order
+        Future<?>[] futures = new Future<?>[testcases.size()];
+
+        for (int i = 0; i < testcases.size(); i++) {
+            int index = i;
+            Testcase tc = testcases.get(i);
+
+            futures[i] = testcaseExecutor.submit(() -> {
+                if (failed.get()) {
+                    return null; // skipped before it started
+                }
+
+                CodeExecutionUtil.ExecutionResult result = runCached(submission, codeHash, checker, bytecode, tc);
+
+                if (Thread.currentThread().isInterrupted()) {
+                    return null; // cancelled mid-run by fail-fast, or judging is being abandoned
+                }
+                publishTestcase(submission, tc, result);
+
+                if (failFast && !result.passed() && failed.compareAndSet(false, true)) {
+                    log.info("Submission {} failing fast after testcase {}", submission.getId(), tc.getId());
+                    cancelOthers(futures, index);
+                }
+                return result;
+            });
+        }
+
+        List<CodeExecutionUtil.ExecutionResult> results = new ArrayList<>(futures.length);
+        try {
+            for (Future<?> future : futures) {
+                results.add(await(submission, future));
+            }
+        } catch (JudgeInterruptedException e) {
+            cancelOthers(futures, -1); // kills whatever is still running
+            throw e;
+        }
+
+        // ❗ Without fail-fast a missing result means a testcase was interrupted, not skipped
+        if (!failed.get() && results.contains(null)) {
+            throw new JudgeInterruptedException(submission.getId());
+        }
+        return withSkipped(submission, testcases, results);
+    }
+
+    private List<CodeExecutionUtil.ExecutionResult> runBatch(
+            Submission submission,
+            List<Testcase> testcases,
+            String codeHash,
+            ProblemChecker checker,
+            boolean failFast,
+            AtomicBoolean failed) {
+
+        List<CodeExecutionUtil.ExecutionResult> results = new ArrayList<>(testcases.size());
+        List<Integer> uncached = new ArrayList<>();
+
+        for (int i = 0; i < testcases.size(); i++) {
+            CodeExecutionUtil.ExecutionResult cached = resultCache.get(codeHash, testcases.get(i), checker.id());
+            results.add(cached);
+            if (cached == null) {
+                uncached.add(i);
+            } else {
+                publishTestcase(submission, testcases.get(i), cached);
+                if (failFast && !cached.passed()) failed.set(true);
+            }
+        }
+
+        // ✅ Only cache misses go to the harness
+        if (!uncached.isEmpty() && !failed.get()) {
+            metrics.executionStarted();
+            try {
+                pythonBatchRunner.executeAndJudgeAll(
+                        submission.getCode(),
+                        uncached.stream().map(i -> toJudgeCase(testcases.get(i), checker)).toList(),
+                        (index, result) -> {
+                            Testcase tc = testcases.get(uncached.get(index));
+                            results.set(uncached.get(index), result);
+                            metrics.recordRun(result);
+                            resultCache.put(codeHash, tc, checker.id(), result);
+                            publishTestcase(submission, tc, result);
+                            if (failFast && !result.passed()) failed.set(true);
+                        },
+                        failed::get);
+            } finally {
+                metrics.executionFinished();
+            }
+            // ❗ The harness stops at an interrupt and leaves the cases it did not finish empty
+            if (Thread.currentThread().isInterrupted()) {
+                throw new JudgeInterruptedException(submission.getId());
+            }
+        }
+        return withSkipped(submission, testcases, results);
+    }
+
+    private static void cancelOthers(Future<?>[] futures, int self) {
+        for (int i = 0; i < futures.length; i++) {
+            if (i != self && futures[i] != null) {
+                futures[i].cancel(true);
+            }
+        }
+    }
+
+    private static CodeExecutionUtil.ExecutionResult await(Submission submission, Future<?> future) {
+        try {
+            return (CodeExecutionUtil.ExecutionResult) future.get();
+        } catch (CancellationException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JudgeInterruptedException(submission.getId());
+        } catch (ExecutionException e) {
+            return new CodeExecutionUtil.ExecutionResult(
+                    "", "Execution error: " + e.getCause().getMessage(), false, "ERROR", 0);
+        }
+    }
+
+    // ✅ Testcases that never ran (fail-fast) are recorded as SKIPPED
+    private List<CodeExecutionUtil.ExecutionResult> withSkipped(
+            Submission submission,
+            List<Testcase> testcases,
+            List<CodeExecutionUtil.ExecutionResult> results) {
+
+        List<CodeExecutionUtil.ExecutionResult> complete = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            CodeExecutionUtil.ExecutionResult result = results.get(i);
+            if (result == null) {
+                result = new CodeExecutionUtil.ExecutionResult(
+                        "", "Skipped after an earlier testcase failed", false, "SKIPPED", 0);
+                publishTestcase(submission, testcases.get(i), result);
+            }
+            complete.add(result);
+        }
+        return complete;
+    }
+
+    private CodeExecutionUtil.ExecutionResult runCached(
+            Submission submission, String codeHash, ProblemChecker checker, byte[] bytecode, Testcase tc) {
+
+        CodeExecutionUtil.ExecutionResult cached = resultCache.get(codeHash, tc, checker.id());
+        if (cached != null) {
+            log.debug("Testcase {} for submission {} served from result cache", tc.getId(), submission.getId());
+            return cached;
+        }
+
+        CodeExecutionUtil.ExecutionResult result = runTimed(submission, checker, bytecode, tc);
+        // ❗ An interrupted run says nothing about the code
+        if (!Thread.currentThread().isInterrupted()) {
+            resultCache.put(codeHash, tc, checker.id(), result);
+        }
+        return result;
+    }
+
+    private CodeExecutionUtil.ExecutionResult runTimed(
+            Submission submission, ProblemChecker checker, byte[] bytecode, Testcase tc) {
+
+        long start = System.currentTimeMillis();
+
+        // ✅ Log testcase execution start
+        log.debug("Executing testcase {} for submission {}", tc.getId(), submission.getId());
+
+        CodeExecutionUtil.ExecutionResult result;
+        metrics.executionStarted();
+        try {
+            result = runTestcase(submission.getCode(), checkerFor(checker, tc), bytecode, tc);
+        } finally {
+            metrics.executionFinished();
+        }
+
+        if (result.phases() != null) {
+            log.debug("Testcase {} phases (µs): {}", tc.getId(), result.phases());
+        }
+
+        // ✅ Backends report the user-code run itself; wall time only where they can't
+        if (result.executionTimeMs() < 0) {
+            result = result.withExecutionTimeMs(System.currentTimeMillis() - start);
+        }
+        metrics.recordRun(result);
+        return result;
+    }
+
+    private CodeExecutionUtil.ExecutionResult runTestcase(
+            String code, Checker checker, byte[] bytecode, Testcase tc) {
+        return switch (executionMode) {
+            case POOL -> pythonWorkerPool.executeAndJudge(
+                    code, tc.getInput(), tc.getExpectedOutput(), checker);
+            case ZYGOTE -> pythonZygote.executeAndJudge(
+                    code, bytecode, tc.getInput(), tc.getExpectedOutput(), checker);
+            // ❗ One harness runs all of a submission's testcases, see runBatch
+            case BATCH -> throw new IllegalArgumentException("BATCH is judged per submission");
+            case PROCESS -> CodeExecutionUtil.executeAndJudgePython(
+                    workspacePool, processReaper, code, bytecode, tc.getInput(), tc.getExpectedOutput(), checker);
+        };
+    }
+
+    private CodeExecutionUtil.JudgeCase toJudgeCase(Testcase tc, ProblemChecker checker) {
+        return new CodeExecutionUtil.JudgeCase(tc.getInput(), tc.getExpectedOutput(), checkerFor(checker, tc));
+    }
+
+    // ---------- CHECKERS ----------
+
+    // ✅ Read once per submission while claiming it; execution only sees this
+    private record ProblemChecker(CheckerType type, String code, String codeHash) {
+
+        static ProblemChecker of(Problem problem) {
+            CheckerType type = problem.getChecker() == null ? CheckerType.EXACT : problem.getChecker();
+            String code = type == CheckerType.SPECIAL ? problem.getCheckerCode() : null;
+            return new ProblemChecker(type, code, code == null ? null : CodeExecutionUtil.sha256(code));
+        }
+
+        // Result cache key part: an edited checker program judges afresh
+        String id() {
+            return codeHash == null ? type.name() : type.name() + ":" + codeHash;
+        }
+    }
+
+    private Checker checkerFor(ProblemChecker checker, Testcase tc) {
+        return checker.type() == CheckerType.SPECIAL
+                ? specialJudge.checker(checker.codeHash(), checker.code(), tc.getInput())
+                : Checkers.of(checker.type());
+    }
+}
@@ -2,6 +2,7 @@ package com.example.codeforge.service;
 
 import com.example.codeforge.dto.problem.ProblemRequest;
 import com.example.codeforge.dto.problem.ProblemResponse;
+import com.example.codeforge.entity.CheckerType;
 import com.example.codeforge.entity.Problem;
 import com.example.codeforge.mapper.ProblemMapper;
 import com.example.codeforge.repository.ProblemRepository;
@@ -39,7 +40,8 @@ public class ProblemService {
     // ✅ CREATE PROBLEM (ADMIN ONLY)
     public ProblemResponse createProblem(ProblemRequest request) {
         log.info("Creating problem: {}", request.getTitle());
-        
+        validateChecker(request);
+
         Problem problem = Problem.builder()
                 .title(request.getTitle())
                 .description(request.getDescription())
@@ -47,6 +49,9 @@ public class ProblemService {
                 .constraints(request.getConstraints())
                 .difficulty(request.getDifficulty())
                 .tags(request.getTags())
+                .judgingPolicy(request.getJudgingPolicy())
+                .checker(request.getChecker())
+                .checkerCode(checkerCode(request))
                 .isActive(true)
                 .build();
 
@@ -58,7 +63,8 @@ public class ProblemService {
     // ✅ UPDATE PROBLEM (ADMIN ONLY)
     public ProblemResponse updateProblem(Long id, ProblemRequest request) {
         log.info("Updating problem {}", id);
-        
+        validateChecker(request);
+
         Problem problem = problemRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Problem not found"));
         
@@ -68,6 +74,9 @@ public class ProblemService {
         problem.setConstraints(request.getConstraints());
         problem.setDifficulty(request.getDifficulty());
         problem.setTags(request.getTags());
+        problem.setJudgingPolicy(request.getJudgingPolicy());
+        problem.setChecker(request.getChecker());
+        problem.setCheckerCode(checkerCode(request));
         problem.setUpdatedAt(LocalDateTime.now());
         
         Problem updated = problemRepository.save(problem);
@@ -85,4 +94,16 @@ public class ProblemService {
         problem.setUpdatedAt(LocalDateTime.now());
         problemRepository.save(problem);
     }
+
+    // ❗ A special judge without a program would fail every submission
+    private void validateChecker(ProblemRequest request) {
+        if (request.getChecker() == CheckerType.SPECIAL
+                && (request.getCheckerCode() == null || request.getCheckerCode().isBlank())) {
+            throw new RuntimeException("checkerCode is required for SPECIAL checker");
+        }
+    }
+
+    private String checkerCode(ProblemRequest request) {
+        return request.getChecker() == CheckerType.SPECIAL ? request.getCheckerCode() : null;
+    }
 }
\ No newline at end of file
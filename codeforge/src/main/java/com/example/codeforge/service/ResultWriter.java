@@ -0,0 +1,237 @@
+package com.example.codeforge.service;
+
+import com.example.codeforge.entity.Submission;
+import com.example.codeforge.entity.SubmissionResult;
+import com.example.codeforge.mapper.SubmissionMapper;
+import com.example.codeforge.repository.JudgeJobRepository;
+import com.example.codeforge.repository.SubmissionRepository;
+import com.example.codeforge.repository.SubmissionResultRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind stage for judged submissions.
+ *
+ * Judge workers hand over a submission's results and final status and move
+ * on; a single writer thread groups whatever arrived within
+ * {@code execution.persistence.flush-interval-ms} (up to
+ * {@code max-batch} submissions) into one transaction, then publishes the
+ * final status events. At shutdown everything still buffered is written
+ * before the datasource goes away.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ResultWriter {
+
+    private static final long IDLE_POLL_MS = 500;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long RETRY_BACKOFF_MS = 1000;
+
+    private final SubmissionRepository submissionRepository;
+    private final SubmissionResultRepository submissionResultRepository;
+    private final JudgeJobRepository judgeJobRepository;
+    private final SubmissionEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${execution.persistence.flush-interval-ms:50}")
+    private long flushIntervalMs;
+
+    @Value("${execution.persistence.max-batch:100}")
+    private int maxBatch; // submissions per transaction
+
+    @Value("${execution.persistence.queue-capacity:10000}")
+    private int capacity;
+
+    @Value("${execution.persistence.shutdown-timeout-seconds:30}")
+    private long shutdownTimeoutSeconds;
+
+    // node = holder of the submission's judge job (database queue), null when there is none
+    private record PendingWrite(Submission submission, List<SubmissionResult> results, String node) {}
+
+    private BlockingQueue<PendingWrite> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(capacity);
+        running = true;
+        writer = new Thread(this::work, "result-writer");
+        writer.start(); // not a daemon: the JVM waits for the final drain
+        Gauge.builder("codeforge.judge.persist.backlog", queue, BlockingQueue::size)
+                .description("Judged submissions waiting to be written")
+                .register(meterRegistry);
+        log.info("Result writer started (flush every {} ms, up to {} submissions)", flushIntervalMs, maxBatch);
+    }
+
+    /**
+     * Queues a judged submission (status and output already set) with its
+     * results. Only blocks when the database has fallen {@code queue-capacity}
+     * submissions behind. With a {@code node}, nothing is stored unless that
+     * node still holds the submission's judge job when the write commits.
+     */
+    public void write(Submission submission, List<SubmissionResult> results, String node) {
+        PendingWrite pending = new PendingWrite(submission, results, node);
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            // ❗ Interrupted judge worker (shutdown): write it here rather than lose it
+            Thread.currentThread().interrupt();
+            flush(new ArrayList<>(List.of(pending)));
+        }
+    }
+
+    public int backlog() {
+        return queue.size();
+    }
+
+    // ---------- WRITER ----------
+
+    private void work() {
+        List<PendingWrite> group = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                collect(group);
+                flush(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Result writer failed on {} submissions", group.size(), e);
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    // ✅ Group commit: whatever arrives within the interval shares one transaction
+    private void collect(List<PendingWrite> group) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (group.size() < maxBatch) {
+            if (!running) {
+                queue.drainTo(group, maxBatch - group.size()); // draining: don't wait
+                return;
+            }
+            long remaining = deadline - System.nanoTime();
+            PendingWrite next = queue.poll(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            group.add(next);
+        }
+    }
+
+    private void flush(List<PendingWrite> group) {
+        List<PendingWrite> pending = new ArrayList<>(group);
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            if (tryWrite(pending)) {
+                return;
+            }
+
+            // ❗ One bad submission must not hold back the rest: retry one by one
+            if (pending.size() > 1) {
+                int before = pending.size();
+                pending.removeIf(w -> tryWrite(List.of(w)));
+                if (pending.isEmpty()) {
+                    return;
+                }
+                if (pending.size() < before) {
+                    break; // the database works, these rows don't
+                }
+            }
+
+            // Nothing went through: database unavailable, back off and retry
+            if (attempt < MAX_ATTEMPTS && !sleep(RETRY_BACKOFF_MS * attempt)) {
+                break;
+            }
+        }
+
+        // Left RUNNING; picked up again by stale-submission recovery
+        log.error("Could not store results for submissions {}",
+                pending.stream().map(w -> w.submission().getId()).toList());
+    }
+
+    private boolean tryWrite(List<PendingWrite> writes) {
+        List<PendingWrite> stored;
+        try {
+            stored = transactionTemplate.execute(status -> {
+                // ✅ Database queue: the job is done exactly when its results are stored
+                List<PendingWrite> owned = writes.stream().filter(this::finishJob).toList();
+                submissionResultRepository.insertAll(owned.stream()
+                        .flatMap(w -> w.results().stream())
+                        .toList());
+                submissionRepository.updateOutcomes(owned.stream()
+                        .map(PendingWrite::submission)
+                        .toList());
+                return owned;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Writing {} judged submissions failed: {}", writes.size(), e.toString());
+            return false;
+        }
+
+        // ✅ Final SSE events only once the results are visible to readers
+        stored.forEach(w -> eventPublisher.publishStatus(SubmissionMapper.toResponse(w.submission())));
+        log.debug("Stored {} judged submissions", stored.size());
+        return true;
+    }
+
+    // ❗ Deleted first, so the job row stays locked until the results commit with it
+    private boolean finishJob(PendingWrite write) {
+        Long submissionId = write.submission().getId();
+        if (write.node() == null) {
+            judgeJobRepository.deleteBySubmissionIdIn(List.of(submissionId));
+            return true;
+        }
+        if (judgeJobRepository.deleteClaimed(submissionId, write.node()) > 0) {
+            return true;
+        }
+        // Lease lost (e.g. a long GC pause): another node is judging it again
+        log.warn("Submission {} was reclaimed from node {}, dropping its results", submissionId, write.node());
+        return false;
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // ✅ Judge workers are stopped first (they depend on this), so nothing new arrives
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(shutdownTimeoutSeconds));
+
+        if (writer.isAlive()) {
+            log.error("Result writer still busy after {}s, {} submissions not stored",
+                    shutdownTimeoutSeconds, queue.size());
+            writer.interrupt();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.codeforge.service;
+
+import com.example.codeforge.dto.submission.SubmissionResponse;
+import com.example.codeforge.dto.submission.TestcaseVerdictEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Server-Sent Events fan-out for live judging progress.
+ *
+ * Subscribers get one {@code testcase} event per finished testcase and a
+ * final {@code status} event, after which their stream is completed. With
+ * the database queue the submission may be judged on another node: then
+ * {@link SubmissionStatusRelay} delivers the final event only.
+ */
+@Component
+@Slf4j
+public class SubmissionEventPublisher {
+
+    private static final long STREAM_TIMEOUT_MS = 5 * 60 * 1000L;
+
+    private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    public SseEmitter subscribe(Long submissionId) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        emitters.computeIfAbsent(submissionId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+
+        Runnable remove = () -> remove(submissionId, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        return emitter;
+    }
+
+    public Set<Long> subscribedIds() {
+        return Set.copyOf(emitters.keySet());
+    }
+
+    public void publishTestcase(TestcaseVerdictEvent event) {
+        List<SseEmitter> subscribers = emitters.get(event.getSubmissionId());
+        if (subscribers == null) return;
+
+        for (SseEmitter emitter : subscribers) {
+            send(event.getSubmissionId(), emitter, "testcase", event);
+        }
+    }
+
+    // ✅ Final event: streams for this submission are completed afterwards
+    public void publishStatus(SubmissionResponse status) {
+        List<SseEmitter> subscribers = emitters.remove(status.getSubmissionId());
+        if (subscribers == null) return;
+
+        for (SseEmitter emitter : subscribers) {
+            if (send(status.getSubmissionId(), emitter, "status", status)) {
+                emitter.complete();
+            }
+        }
+    }
+
+    private boolean send(Long submissionId, SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping event stream for submission {}: {}", submissionId, e.getMessage());
+            remove(submissionId, emitter);
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private void remove(Long submissionId, SseEmitter emitter) {
+        emitters.computeIfPresent(submissionId, (id, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+    }
+}
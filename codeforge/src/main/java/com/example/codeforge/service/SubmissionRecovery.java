@@ -0,0 +1,143 @@
+package com.example.codeforge.service;
+
+import com.example.codeforge.entity.SubmissionStatus;
+import com.example.codeforge.repository.SubmissionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Picks up submissions a previous run of the application left unjudged.
+ *
+ * The judge queue lives in memory, so a crash or kill leaves submissions
+ * {@code PENDING} (queued) or {@code RUNNING} (mid-judge, or results not yet
+ * written) forever. Once the application is ready, every such submission
+ * created before this JVM started is judged again on a few dedicated
+ * threads, keeping the results of testcases that were already stored.
+ * Submissions older than {@code execution.recovery.max-age-hours} are
+ * failed instead of rerun.
+ *
+ * Only for the in-memory queue: with {@link DatabaseJudgeQueue} the jobs of
+ * a dead node are reclaimed once their heartbeat goes stale.
+ */
+@Component
+@ConditionalOnProperty(name = "execution.judge.queue", havingValue = "MEMORY", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class SubmissionRecovery {
+
+    private static final List<SubmissionStatus> UNJUDGED =
+            List.of(SubmissionStatus.PENDING, SubmissionStatus.RUNNING);
+
+    private final SubmissionRepository submissionRepository;
+    private final JudgeService judgeService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${execution.enabled:true}")
+    private boolean executionEnabled;
+
+    @Value("${execution.recovery.enabled:true}")
+    private boolean enabled;
+
+    @Value("${execution.recovery.max-age-hours:24}")
+    private long maxAgeHours;
+
+    @Value("${execution.recovery.concurrency:2}")
+    private int concurrency; // submissions rejudged at once, next to the judge workers
+
+    @Value("${execution.judge.shutdown-grace-seconds:10}")
+    private long shutdownGraceSeconds;
+
+    private final Queue<Long> remaining = new ConcurrentLinkedQueue<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    @EventListener(ApplicationReadyEvent.class)
+    void recover() {
+        if (!enabled || !executionEnabled) {
+            return;
+        }
+
+        // ❗ Only this JVM's predecessors: anything newer is already in the judge queue
+        LocalDateTime startedAt = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(ManagementFactory.getRuntimeMXBean().getStartTime()),
+                ZoneId.systemDefault());
+
+        Integer expired = transactionTemplate.execute(status ->
+                submissionRepository.failByStatusInAndCreatedAtBefore(
+                        UNJUDGED, startedAt.minusHours(maxAgeHours), "Judging interrupted, please resubmit"));
+        if (expired != null && expired > 0) {
+            log.warn("{} unjudged submissions older than {}h marked as ERROR", expired, maxAgeHours);
+        }
+
+        List<Long> ids = submissionRepository.findIdsByStatusInAndCreatedAtBefore(UNJUDGED, startedAt);
+        if (ids.isEmpty()) {
+            return;
+        }
+        remaining.addAll(ids);
+        running = true;
+
+        int count = Math.max(1, Math.min(concurrency, ids.size()));
+        for (int i = 1; i <= count; i++) {
+            Thread worker = new Thread(this::work, "submission-recovery-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Recovering {} submissions interrupted by a restart ({} at a time)", ids.size(), count);
+    }
+
+    public int remaining() {
+        return remaining.size();
+    }
+
+    private void work() {
+        Long submissionId;
+        while (running && (submissionId = remaining.poll()) != null) {
+            try {
+                judgeService.resume(submissionId);
+            } catch (JudgeInterruptedException e) {
+                log.info("Submission {} left RUNNING at shutdown", submissionId);
+                return;
+            } catch (Exception e) {
+                log.error("Recovering submission {} failed", submissionId, e);
+                try {
+                    judgeService.markError(submissionId, "Judge failure");
+                } catch (Exception ex) {
+                    log.error("Could not mark submission {} as ERROR", submissionId, ex);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // ✅ Same drain as the judge queue; whatever is left is recovered on the next start
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(shutdownGraceSeconds);
+        for (Thread worker : workers) {
+            worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        }
+        workers.stream().filter(Thread::isAlive).forEach(Thread::interrupt);
+
+        if (!remaining.isEmpty()) {
+            log.info("{} submissions left for recovery at shutdown", remaining.size());
+        }
+    }
+}
@@ -4,12 +4,12 @@ import com.example.codeforge.dto.submission.*;
 import com.example.codeforge.entity.*;
 import com.example.codeforge.mapper.SubmissionMapper;
 import com.example.codeforge.repository.*;
-import com.example.codeforge.utils.CodeExecutionUtil;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -24,6 +24,8 @@ public class SubmissionService {
     private final TestcaseRepository testcaseRepository;
     private final SubmissionRepository submissionRepository;
     private final SubmissionResultRepository submissionResultRepository;
+    private final JudgeQueue judgeQueue;
+    private final SubmissionEventPublisher eventPublisher;
 
     @Value("${execution.enabled:true}")
     private boolean executionEnabled;
@@ -47,6 +49,7 @@ public class SubmissionService {
                 .problem(problem)
                 .code(request.getCode())
                 .status(SubmissionStatus.PENDING)
+                .judgingPolicy(resolvePolicy(request, problem))
                 .build();
 
         submission = submissionRepository.save(submission);
@@ -66,10 +69,21 @@ public class SubmissionService {
             return SubmissionMapper.toResponse(submission);
         }
 
-        executeAndSaveResults(submission, testcases);
+        // ❗ Thrown before commit: the submission is rolled back and the client told to retry (503)
+        if (!judgeQueue.hasCapacity())
+            throw new JudgeQueueFullException();
+
+        // ✅ Judged in the background; clients poll GET /api/submissions/{id}
+        judgeQueue.enqueue(submission.getId());
         return SubmissionMapper.toResponse(submission);
     }
 
+    private static JudgingPolicy resolvePolicy(SubmitCodeRequest request, Problem problem) {
+        if (request.getJudgingPolicy() != null) return request.getJudgingPolicy();
+        if (problem.getJudgingPolicy() != null) return problem.getJudgingPolicy();
+        return JudgingPolicy.RUN_ALL;
+    }
+
     public SubmissionDetailResponse getSubmissionDetails(
             String username, Long submissionId) {
 
@@ -86,91 +100,27 @@ public class SubmissionService {
         return SubmissionMapper.toDetailResponse(submission, results);
     }
 
-    private void executeAndSaveResults(
-            Submission submission, List<Testcase> testcases) {
-
-        boolean hasError = false;
-        boolean hasTimeout = false;
-        boolean allPassed = true;
-        int passedCount = 0;
-
-        // ✅ Log submission start
-        log.info("Starting execution for submission {} with {} testcases", 
-                submission.getId(), testcases.size());
-
-        for (Testcase tc : testcases) {
-
-            long start = System.currentTimeMillis();
-
-            // ✅ Log testcase execution start
-            log.debug("Executing testcase {} for submission {}", tc.getId(), submission.getId());
-
-            CodeExecutionUtil.ExecutionResult result =
-                    CodeExecutionUtil.executeAndJudgePython(
-                            submission.getCode(),
-                            tc.getInput(),
-                            tc.getExpectedOutput()
-                    );
-
-            long execTime = System.currentTimeMillis() - start;
-
-            // ✅ Add detailed logging for debugging
-            log.debug("Testcase {} execution: verdict={}, passed={}, execTime={}ms",
-                    tc.getId(), result.verdict(), result.passed(), execTime);
-            
-            if (result.stderr() != null && !result.stderr().isEmpty()) {
-                log.debug("Testcase {} stderr: {}", tc.getId(), 
-                        result.stderr().length() > 200 ? result.stderr().substring(0, 200) + "..." : result.stderr());
-            }
-
-            if ("ERROR".equals(result.verdict())) {
-                hasError = true;
-                allPassed = false;
-                log.warn("Testcase {} returned ERROR: {}", tc.getId(), result.stderr());
-            } else if ("TIMEOUT".equals(result.verdict())) {
-                hasTimeout = true;
-                allPassed = false;
-                log.warn("Testcase {} TIMEOUT", tc.getId());
-            } else if (!result.passed()) {
-                allPassed = false;
-                log.debug("Testcase {} FAILED - expected: {} got: {}", tc.getId(), 
-                        tc.getExpectedOutput(), result.stdout());
-            } else {
-                passedCount++;
-                log.debug("Testcase {} PASSED", tc.getId());
-            }
-
-            SubmissionResult submissionResult = SubmissionResult.builder()
-                    .submission(submission)
-                    .testcase(tc)
-                    .passed(result.passed())
-                    .output(result.stdout())
-                    .error(result.stderr())
-                    .executionTime((int) execTime)
-                    .build();
-
-            submissionResultRepository.save(submissionResult);
-        }
+    // ✅ No surrounding transaction: the status re-read below must see fresh data
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public SseEmitter streamEvents(String username, Long submissionId) {
 
-        if (hasError) {
-            submission.setStatus(SubmissionStatus.ERROR);
-            submission.setOutput("Runtime Error");
-            log.warn("Submission {} marked as ERROR", submission.getId());
-        } else if (hasTimeout) {
-            submission.setStatus(SubmissionStatus.FAILED);
-            submission.setOutput("Time Limit Exceeded");
-            log.warn("Submission {} marked as TIMEOUT", submission.getId());
-        } else if (allPassed) {
-            submission.setStatus(SubmissionStatus.PASSED);
-            submission.setOutput("Accepted");
-            log.info("Submission {} ACCEPTED - all testcases passed", submission.getId());
-        } else {
-            submission.setStatus(SubmissionStatus.FAILED);
-            submission.setOutput(passedCount + "/" + testcases.size() + " testcases passed");
-            log.info("Submission {} FAILED - {} passed out of {}", submission.getId(), passedCount, testcases.size());
-        }
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        submissionRepository.findByIdAndUserId(submissionId, user.getId())
+                .orElseThrow(() -> new RuntimeException("Submission not found"));
 
-        submissionRepository.save(submission);
+        SseEmitter emitter = eventPublisher.subscribe(submissionId);
+
+        // ✅ Re-read after subscribing so the final event can't slip past
+        Submission submission = submissionRepository.findById(submissionId)
+                .orElseThrow(() -> new RuntimeException("Submission not found"));
+
+        if (submission.getStatus() != SubmissionStatus.PENDING
+                && submission.getStatus() != SubmissionStatus.RUNNING) {
+            eventPublisher.publishStatus(SubmissionMapper.toResponse(submission));
+        }
+        return emitter;
     }
 
     public List<SubmissionResponse> getUserSubmissions(String username) {
@@ -0,0 +1,82 @@
+package com.example.codeforge.service;
+
+import com.example.codeforge.entity.SubmissionStatus;
+import com.example.codeforge.mapper.SubmissionMapper;
+import com.example.codeforge.repository.SubmissionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Final status events for submissions judged on another node.
+ *
+ * With {@code execution.judge.queue=DATABASE} a submission is usually judged
+ * by a worker node while its event stream is open on an API node, which
+ * never sees the result being written. Every
+ * {@code execution.judge.status-relay-ms} this reads the status of every
+ * submission with an open stream here and publishes those that are final.
+ */
+@Component
+@ConditionalOnProperty(name = "execution.judge.queue", havingValue = "DATABASE")
+@RequiredArgsConstructor
+@Slf4j
+public class SubmissionStatusRelay {
+
+    private static final List<SubmissionStatus> UNJUDGED =
+            List.of(SubmissionStatus.PENDING, SubmissionStatus.RUNNING);
+
+    private final SubmissionRepository submissionRepository;
+    private final SubmissionEventPublisher eventPublisher;
+
+    @Value("${execution.judge.status-relay-ms:1000}")
+    private long intervalMs;
+
+    private Thread relay;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        running = true;
+        relay = new Thread(this::work, "submission-status-relay");
+        relay.setDaemon(true);
+        relay.start();
+    }
+
+    private void work() {
+        while (running) {
+            try {
+                Thread.sleep(intervalMs);
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                relay();
+            } catch (RuntimeException e) {
+                log.warn("Relaying submission statuses failed: {}", e.toString());
+            }
+        }
+    }
+
+    // ✅ One query per round, and none while nobody is streaming
+    private void relay() {
+        Set<Long> ids = eventPublisher.subscribedIds();
+        if (ids.isEmpty()) {
+            return;
+        }
+        submissionRepository.findByIdInAndStatusNotIn(ids, UNJUDGED)
+                .forEach(s -> eventPublisher.publishStatus(SubmissionMapper.toResponse(s)));
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        relay.interrupt();
+    }
+}
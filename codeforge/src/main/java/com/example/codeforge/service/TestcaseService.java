@@ -23,6 +23,7 @@ public class TestcaseService {
     
     private final TestcaseRepository testcaseRepository;
     private final ProblemRepository problemRepository;
+    private final ExecutionResultCache resultCache;
     
     // ✅ GET PUBLIC TESTCASES (Users can see)
     public List<TestcaseResponse> getPublicTestcases(Long problemId) {
@@ -127,6 +128,7 @@ public class TestcaseService {
         testcase.setHidden(request.isHidden());
         
         Testcase updated = testcaseRepository.save(testcase);
+        resultCache.invalidateTestcase(id);
         log.info("Testcase {} updated successfully", id);
         return TestcaseMapper.toResponse(updated);
     }
@@ -143,6 +145,7 @@ public class TestcaseService {
                 .orElseThrow(() -> new RuntimeException("Testcase not found"));
         
         testcaseRepository.delete(testcase);
+        resultCache.invalidateTestcase(id);
         log.info("Testcase {} deleted successfully", id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.example.codeforge.utils;
+
+/**
+ * Decides whether a program's output is an accepted answer for the expected
+ * output. The built-in ones are stateless and shared, see {@link Checkers};
+ * special judges are bound to a testcase's input, see {@link SpecialJudge}.
+ * A checker that cannot decide throws {@link CheckerException}.
+ */
+@FunctionalInterface
+public interface Checker {
+
+    boolean accepts(String output, String expected);
+}
@@ -0,0 +1,12 @@
+package com.example.codeforge.utils;
+
+/**
+ * A checker could not judge the output (special judge crashed, timed out or
+ * returned garbage). Not the submission's fault; reported as an {@code ERROR}.
+ */
+public class CheckerException extends RuntimeException {
+
+    public CheckerException(String message) {
+        super(message);
+    }
+}
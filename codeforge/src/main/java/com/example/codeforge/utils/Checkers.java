@@ -0,0 +1,240 @@
+package com.example.codeforge.utils;
+
+import com.example.codeforge.entity.CheckerType;
+
+import java.util.Arrays;
+
+/**
+ * The built-in {@link Checker}s, one per {@link CheckerType}.
+ *
+ * All of them walk the output and the expected answer once, by index, so
+ * judging a large output does not split it into arrays of strings or run a
+ * regex per token. Leading/trailing whitespace of the whole output never
+ * matters, and CRLF counts as LF.
+ */
+public final class Checkers {
+
+    static final double FLOAT_EPS = 1e-5;
+
+    public static final Checker EXACT = Checkers::exact;
+    public static final Checker TOKENS = (output, expected) -> tokens(output, expected, false);
+    public static final Checker FLOAT_TOKENS = (output, expected) -> tokens(output, expected, true);
+    public static final Checker UNORDERED_LINES = Checkers::unorderedLines;
+    public static final Checker CASE_INSENSITIVE = (output, expected) -> sameText(output, expected, true);
+
+    private Checkers() {}
+
+    public static Checker of(CheckerType type) {
+        if (type == null) {
+            return EXACT;
+        }
+        return switch (type) {
+            case EXACT -> EXACT;
+            case TOKENS -> TOKENS;
+            case FLOAT_TOKENS -> FLOAT_TOKENS;
+            case UNORDERED_LINES -> UNORDERED_LINES;
+            case CASE_INSENSITIVE -> CASE_INSENSITIVE;
+            case SPECIAL -> throw new IllegalArgumentException("Special checkers come from SpecialJudge");
+        };
+    }
+
+    // ---------- CHECKERS ----------
+
+    private static boolean exact(String output, String expected) {
+        // FLOAT compare (needed for Median problem)
+        int os = start(output), oe = end(output, os);
+        int es = start(expected), ee = end(expected, es);
+        if (isNumber(output, os, oe) && isNumber(expected, es, ee)) {
+            double a = Double.parseDouble(output.substring(os, oe));
+            double b = Double.parseDouble(expected.substring(es, ee));
+            return Math.abs(a - b) <= FLOAT_EPS;
+        }
+        return sameText(output, expected, false);
+    }
+
+    private static boolean sameText(String output, String expected, boolean ignoreCase) {
+        int i = start(output), iEnd = end(output, i);
+        int j = start(expected), jEnd = end(expected, j);
+
+        while (true) {
+            i = skipCrBeforeLf(output, i, iEnd);
+            j = skipCrBeforeLf(expected, j, jEnd);
+            if (i == iEnd || j == jEnd) {
+                return i == iEnd && j == jEnd;
+            }
+            char a = output.charAt(i++);
+            char b = expected.charAt(j++);
+            if (a != b && !(ignoreCase && equalsIgnoreCase(a, b))) {
+                return false;
+            }
+        }
+    }
+
+    private static boolean tokens(String output, String expected, boolean numeric) {
+        int i = 0, j = 0;
+        int iEnd = output.length(), jEnd = expected.length();
+
+        while (true) {
+            i = skipBlank(output, i, iEnd);
+            j = skipBlank(expected, j, jEnd);
+            if (i == iEnd || j == jEnd) {
+                return i == iEnd && j == jEnd;
+            }
+
+            int iTok = tokenEnd(output, i, iEnd);
+            int jTok = tokenEnd(expected, j, jEnd);
+            boolean same = iTok - i == jTok - j && output.regionMatches(i, expected, j, iTok - i);
+
+            // ✅ Only tokens that differ as text are parsed
+            if (!same && !(numeric && closeEnough(output, i, iTok, expected, j, jTok))) {
+                return false;
+            }
+            i = iTok;
+            j = jTok;
+        }
+    }
+
+    private static boolean unorderedLines(String output, String expected) {
+        Line[] actual = lines(output);
+        Line[] wanted = lines(expected);
+        if (actual.length != wanted.length) {
+            return false;
+        }
+        Arrays.sort(actual);
+        Arrays.sort(wanted);
+        // ✅ Hashes only order the lines; a match is always confirmed on the text
+        for (int i = 0; i < actual.length; i++) {
+            if (actual[i].compareTo(wanted[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ---------- SCANNING ----------
+
+    static boolean isNumber(CharSequence s, int from, int to) {
+        // [-+]?(\d+\.?\d*|\.\d+)([eE][-+]?\d+)?
+        int i = from;
+        if (i < to && (s.charAt(i) == '-' || s.charAt(i) == '+')) i++;
+
+        int intDigits = digits(s, i, to);
+        i += intDigits;
+        int fracDigits = 0;
+        if (i < to && s.charAt(i) == '.') {
+            fracDigits = digits(s, ++i, to);
+            i += fracDigits;
+        }
+        if (intDigits == 0 && fracDigits == 0) {
+            return false;
+        }
+
+        if (i < to && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            if (i < to && (s.charAt(i) == '-' || s.charAt(i) == '+')) i++;
+            int expDigits = digits(s, i, to);
+            if (expDigits == 0) return false;
+            i += expDigits;
+        }
+        return i == to;
+    }
+
+    private static boolean closeEnough(String a, int aFrom, int aTo, String b, int bFrom, int bTo) {
+        if (!isNumber(a, aFrom, aTo) || !isNumber(b, bFrom, bTo)) {
+            return false;
+        }
+        double x = Double.parseDouble(a.substring(aFrom, aTo));
+        double y = Double.parseDouble(b.substring(bFrom, bTo));
+        return Math.abs(x - y) <= FLOAT_EPS * Math.max(1.0, Math.abs(y));
+    }
+
+    // One line of a text, trailing whitespace excluded; ordered by hash, then by its characters
+    private record Line(String text, int start, int end, long hash) implements Comparable<Line> {
+
+        @Override
+        public int compareTo(Line other) {
+            int byHash = Long.compare(hash, other.hash);
+            if (byHash != 0) {
+                return byHash;
+            }
+            int length = Math.min(end - start, other.end - other.start);
+            for (int k = 0; k < length; k++) {
+                int byChar = Character.compare(text.charAt(start + k), other.text.charAt(other.start + k));
+                if (byChar != 0) {
+                    return byChar;
+                }
+            }
+            return Integer.compare(end - start, other.end - other.start);
+        }
+    }
+
+    // Every line of the trimmed text, with its 64-bit FNV-1a hash
+    private static Line[] lines(String s) {
+        int from = start(s), to = end(s, from);
+        if (from == to) {
+            return new Line[0];
+        }
+
+        int count = 1;
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) == '\n') count++;
+        }
+
+        Line[] lines = new Line[count];
+        int line = 0;
+        int lineStart = from;
+        for (int i = from; i <= to; i++) {
+            if (i == to || s.charAt(i) == '\n') {
+                int lineEnd = i;
+                while (lineEnd > lineStart && s.charAt(lineEnd - 1) <= ' ') lineEnd--;
+
+                long hash = 0xcbf29ce484222325L;
+                for (int k = lineStart; k < lineEnd; k++) {
+                    hash = (hash ^ s.charAt(k)) * 0x100000001b3L;
+                }
+                lines[line++] = new Line(s, lineStart, lineEnd, hash);
+                lineStart = i + 1;
+            }
+        }
+        return lines;
+    }
+
+    private static int start(String s) {
+        int i = 0;
+        while (i < s.length() && s.charAt(i) <= ' ') i++;
+        return i;
+    }
+
+    private static int end(String s, int start) {
+        int i = s.length();
+        while (i > start && s.charAt(i - 1) <= ' ') i--;
+        return i;
+    }
+
+    private static int skipBlank(String s, int i, int end) {
+        while (i < end && s.charAt(i) <= ' ') i++;
+        return i;
+    }
+
+    private static int tokenEnd(String s, int i, int end) {
+        while (i < end && s.charAt(i) > ' ') i++;
+        return i;
+    }
+
+    private static int skipCrBeforeLf(String s, int i, int end) {
+        return i + 1 < end && s.charAt(i) == '\r' && s.charAt(i + 1) == '\n' ? i + 1 : i;
+    }
+
+    private static int digits(CharSequence s, int i, int to) {
+        int start = i;
+        while (i < to && s.charAt(i) >= '0' && s.charAt(i) <= '9') i++;
+        return i - start;
+    }
+
+    private static boolean equalsIgnoreCase(char a, char b) {
+        // Same rule as String.equalsIgnoreCase
+        char ua = Character.toUpperCase(a);
+        char ub = Character.toUpperCase(b);
+        return ua == ub || Character.toLowerCase(ua) == Character.toLowerCase(ub);
+    }
+}
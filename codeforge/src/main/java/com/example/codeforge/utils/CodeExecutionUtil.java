@@ -1,58 +1,185 @@
 package com.example.codeforge.utils;
 
+import org.springframework.core.io.ClassPathResource;
+
 import java.io.*;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class CodeExecutionUtil {
 
-    private static final long TIMEOUT_SECONDS = 2;
-    private static final int MAX_OUTPUT_CHARS = 10_000;
-    private static final double FLOAT_EPS = 1e-5;
-    private static final String PYTHON_CMD = "python";
+    static final long TIMEOUT_SECONDS = 2;  // CPU time where the backend can measure it
+    static final long WALL_TIMEOUT_SECONDS = 3 * TIMEOUT_SECONDS;  // backstop for sleeping/blocked runs
+    static final long MEMORY_LIMIT_KB = 256 * 1024;
+    static final int MAX_OUTPUT_CHARS = 10_000;
+    static final String PYTHON_CMD = "python";
+    private static final long OUTPUT_DRAIN_MS = 1000;
+    static final int CAPTURE_BYTES = MAX_OUTPUT_CHARS * 4 + 4; // enough bytes for MAX_OUTPUT_CHARS
+    private static final String TRUNCATED = "\n[Output truncated]";
+    private static final String OUTPUT_LIMIT_EXCEEDED = "Output limit exceeded";
+
+    // Pumps stdin/stdout/stderr while the caller only waits on the process
+    private static final ExecutorService PIPE_PUMPS = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "process-pipe");
+        t.setDaemon(true);
+        return t;
+    });
 
     private CodeExecutionUtil() {}
 
+    // Read once, on the first cold run
+    private static final class RunScript {
+        private static final String SOURCE = load();
+
+        private static String load() {
+            try {
+                return new ClassPathResource("python/run.py").getContentAsString(StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read python/run.py", e);
+            }
+        }
+    }
+
     // ---------- RESULT ----------
     public record ExecutionResult(
             String stdout,
             String stderr,
             boolean passed,
-            String verdict   // PASSED | FAILED | ERROR | TIMEOUT
+            String verdict,  // PASSED | FAILED | ERROR | TIMEOUT | MEMORY_LIMIT | SKIPPED
+            long executionTimeMs,  // -1 when measured by the caller
+            long mismatchOffset,  // byte offset of the first wrong stdout byte, -1 if unknown
+            long cpuTimeMs,  // user+sys, -1 if unknown
+            long peakMemoryKb,  // peak RSS, -1 if unknown
+            PhaseTimings phases  // null when the backend does not time phases
+    ) {
+        public ExecutionResult(String stdout, String stderr, boolean passed, String verdict) {
+            this(stdout, stderr, passed, verdict, -1);
+        }
+
+        public ExecutionResult(
+                String stdout, String stderr, boolean passed, String verdict, long executionTimeMs) {
+            this(stdout, stderr, passed, verdict, executionTimeMs, -1);
+        }
+
+        public ExecutionResult(
+                String stdout, String stderr, boolean passed, String verdict,
+                long executionTimeMs, long mismatchOffset) {
+            this(stdout, stderr, passed, verdict, executionTimeMs, mismatchOffset, -1, -1, null);
+        }
+
+        public ExecutionResult withExecutionTimeMs(long millis) {
+            return new ExecutionResult(
+                    stdout, stderr, passed, verdict, millis, mismatchOffset, cpuTimeMs, peakMemoryKb, phases);
+        }
+
+        public ExecutionResult withUsage(long cpuMillis, long peakKb) {
+            return new ExecutionResult(
+                    stdout, stderr, passed, verdict, executionTimeMs, mismatchOffset, cpuMillis, peakKb, phases);
+        }
+
+        public ExecutionResult withPhases(PhaseTimings timings) {
+            return new ExecutionResult(
+                    stdout, stderr, passed, verdict, executionTimeMs, mismatchOffset, cpuTimeMs, peakMemoryKb, timings);
+        }
+
+        // The program printed more than is kept: the rest was dropped, or the run was stopped for it
+        public boolean outputTruncated() {
+            return (stdout != null && stdout.endsWith(TRUNCATED))
+                    || (stderr != null && stderr.startsWith(OUTPUT_LIMIT_EXCEEDED));
+        }
+    }
+
+    // ---------- PHASE TIMINGS ----------
+    // Microseconds, -1 for a phase the run never reached or the backend does not have
+    public record PhaseTimings(
+            long setupMicros,  // workspace and files
+            long spawnMicros,  // starting the process
+            long runMicros,  // user code, from start to exit (the official execution time)
+            long captureMicros,  // collecting output after exit
+            long judgeMicros,  // deciding the verdict (streaming judging overlaps the run)
+            long cleanupMicros  // releasing the process tree and workspace
+    ) {}
+
+    // ---------- BATCH INPUT ----------
+    public record JudgeCase(
+            String input,
+            String expectedOutput,
+            Checker checker
     ) {}
 
     public static ExecutionResult executeAndJudgePython(
+            WorkspacePool workspaces,
+            ProcessReaper reaper,
             String userCode,
+            byte[] bytecode,  // precompiled solution.pyc, or null to run the source
             String input,
-            String expectedOutput
+            String expectedOutput,
+            Checker checker
     ) {
 
-        if (userCode == null || userCode.isBlank()) {
-            return new ExecutionResult("", "User code cannot be empty", false, "ERROR");
+        ExecutionResult invalid = validate(userCode, expectedOutput);
+        if (invalid != null) {
+            return invalid;
         }
 
-        if (expectedOutput == null || expectedOutput.isBlank()) {
-            return new ExecutionResult("", "Expected output not configured", false, "ERROR");
-        }
+        // ✅ Each phase timed separately; only the user-code run counts as execution time
+        PhaseTimer timer = new PhaseTimer();
+        ExecutionResult result = runInWorkspace(
+                timer, workspaces, reaper, userCode, bytecode, input, expectedOutput, checker);
+        return timer.applyTo(result);
+    }
+
+    private static ExecutionResult runInWorkspace(
+            PhaseTimer timer,
+            WorkspacePool workspaces,
+            ProcessReaper reaper,
+            String userCode,
+            byte[] bytecode,
+            String input,
+            String expectedOutput,
+            Checker checker
+    ) {
 
         Path tempDir = null;
+        ProcessHandle run = null;
 
         try {
-            tempDir = Files.createTempDirectory("codeforge_");
+            timer.start(PhaseTimer.Phase.SETUP);
+            tempDir = workspaces.acquire();
             Path codeFile = tempDir.resolve("solution.py");
             Files.writeString(codeFile, userCode, StandardCharsets.UTF_8);
 
+            // ✅ Start from the compiled image when we have one; source stays for tracebacks
+            Path entryFile = codeFile;
+            if (bytecode != null) {
+                entryFile = Files.write(tempDir.resolve("solution.pyc"), bytecode);
+            }
+
+            // ✅ Own process group, kernel-enforced limits
+            ProcessBuilder builder = new ProcessBuilder(SandboxLauncher.command(
+                    true,
+                    PYTHON_CMD,
+                    "-c",
+                    RunScript.SOURCE,
+                    entryFile.toAbsolutePath().toString()
+            ))
+                    .directory(tempDir.toFile())
+                    .redirectErrorStream(false);
+            String tag = reaper.tag(builder);
+
+            timer.start(PhaseTimer.Phase.SPAWN);
             Process process;
             try {
-                process = new ProcessBuilder(
-                        PYTHON_CMD,
-                        codeFile.toAbsolutePath().toString()
-                )
-                        .directory(tempDir.toFile())
-                        .redirectErrorStream(false)
-                        .start();
+                process = builder.start();
             } catch (IOException e) {
                 return new ExecutionResult(
                         "",
@@ -61,65 +188,96 @@ public class CodeExecutionUtil {
                         "ERROR"
                 );
             }
+            // ✅ Registered so the whole tree can be killed, here or at shutdown
+            ProcessHandle tree = process.toHandle();
+            reaper.track(tree, tag);
+            run = tree;
+
+            // ✅ Judge stdout as it is produced; a wrong answer kills the process
+            StreamingJudge streamingJudge = new StreamingJudge(expectedOutput, checker, () -> reaper.kill(tree));
+            Future<?> stdoutJudged = PIPE_PUMPS.submit(() -> {
+                streamingJudge.consume(process.getInputStream());
+                return null;
+            });
+
+            // ✅ All pipes pumped concurrently so a full pipe buffer can't stall the run
+            Future<String> stderrDrained = PIPE_PUMPS.submit(() -> drain(process.getErrorStream()));
+            PIPE_PUMPS.execute(() -> writeInput(process.getOutputStream(), input));
+
+            // ✅ CPU time and peak memory, not wall clock, decide the limits
+            ResourceWatch watch = new ResourceWatch(process.pid());
+            ResourceWatch.Outcome outcome;
+            timer.start(PhaseTimer.Phase.RUN);
+            try {
+                outcome = watch.await(ms -> process.waitFor(ms, TimeUnit.MILLISECONDS));
+            } catch (InterruptedException e) {
+                // ❗ Cancelled (e.g. fail-fast judging): don't leave it running
+                timer.start(PhaseTimer.Phase.CLEANUP);
+                reaper.kill(tree);
+                Thread.currentThread().interrupt();
+                return new ExecutionResult("", "Execution cancelled", false, "ERROR");
+            }
 
-            // ✅ FIXED: stdin handling with proper newline conversion
-            try (BufferedWriter writer =
-                         new BufferedWriter(
-                                 new OutputStreamWriter(
-                                         process.getOutputStream(),
-                                         StandardCharsets.UTF_8))) {
-
-                if (input != null && !input.isBlank()) {
-                    // ✅ Convert literal \n to actual newlines
-                    String processedInput = input.replace("\\n", "\n");
-                    writer.write(processedInput);
-                    
-                    // ✅ Ensure input ends with newline for proper EOF
-                    if (!processedInput.endsWith("\n")) {
-                        writer.write("\n");
-                    }
-                    writer.flush();
-                }
-                // ✅ Close stdin to signal EOF to Python
-            } // auto-closes writer, which closes the output stream
+            if (outcome != ResourceWatch.Outcome.EXITED) {
+                timer.start(PhaseTimer.Phase.CLEANUP);
+                reaper.kill(tree);
+                return watch.applyTo(outcome == ResourceWatch.Outcome.MEMORY_LIMIT
+                        ? memoryLimitResult()
+                        : timeoutResult());
+            }
 
-            boolean finished =
-                    process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            // ❗ Usage stays the last /proc sample: nothing the run reports about itself is trusted
+            timer.start(PhaseTimer.Phase.CAPTURE);
+            String stderr;
+            try {
+                stdoutJudged.get(OUTPUT_DRAIN_MS, TimeUnit.MILLISECONDS);
+                stderr = stderrDrained.get(OUTPUT_DRAIN_MS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // ❗ Pipes still held open (e.g. by a background child)
+                reaper.kill(tree);
+                process.getInputStream().close();
+                process.getErrorStream().close();
+                return watch.applyTo(timeoutResult());
+            }
 
-            if (!finished) {
-                process.destroyForcibly();
-                return new ExecutionResult(
-                        "",
-                        "Time Limit Exceeded (" + TIMEOUT_SECONDS + "s)",
+            timer.start(PhaseTimer.Phase.JUDGE);
+            if (streamingJudge.rejected()) {
+                return watch.applyTo(new ExecutionResult(
+                        streamingJudge.stdout(),
+                        streamingJudge.outputLimitExceeded()
+                                ? OUTPUT_LIMIT_EXCEEDED + (stderr.isEmpty() ? "" : "\n" + stderr)
+                                : stderr,
                         false,
-                        "TIMEOUT"
-                );
+                        "FAILED",
+                        -1,
+                        streamingJudge.mismatchOffset()
+                ));
             }
 
-            String stdout = readStream(process.getInputStream());
-            String stderr = readStream(process.getErrorStream());
             int exitCode = process.exitValue();
-
-
-
-            // ❗ Correct runtime error detection
+            if (exitCode == SandboxLauncher.SIGXCPU_EXIT) {
+                return watch.applyTo(timeoutResult());
+            }
             if (exitCode != 0) {
-                return new ExecutionResult(
-                        stdout,
-                        stderr,
-                        false,
-                        "ERROR"
-                );
+                return watch.applyTo(outOfMemory(stderr)
+                        ? memoryLimitResult()
+                        : new ExecutionResult(streamingJudge.stdout(), stderr, false, "ERROR"));
             }
 
-            boolean passed = judge(stdout, expectedOutput);
-
-            return new ExecutionResult(
-                    stdout,
+            boolean passed;
+            try {
+                passed = streamingJudge.passed();
+            } catch (CheckerException e) {
+                return watch.applyTo(checkerErrorResult(streamingJudge.stdout(), e));
+            }
+            return watch.applyTo(new ExecutionResult(
+                    streamingJudge.stdout(),
                     stderr,
                     passed,
-                    passed ? "PASSED" : "FAILED"
-            );
+                    passed ? "PASSED" : "FAILED",
+                    -1,
+                    streamingJudge.mismatchOffset()
+            ));
 
         } catch (Exception e) {
             return new ExecutionResult(
@@ -129,43 +287,207 @@ public class CodeExecutionUtil {
                     "ERROR"
             );
         } finally {
-            cleanup(tempDir);
+            timer.start(PhaseTimer.Phase.CLEANUP);
+            if (run != null) {
+                reaper.release(run);
+            }
+            workspaces.release(tempDir);
+            timer.stop();
         }
     }
 
-    // ---------- JUDGING ----------
+    // ---------- SHARED STEPS ----------
+    // Used by the cold-spawn path above and by the warm execution backends.
+
+    static ExecutionResult validate(String userCode, String expectedOutput) {
+        if (userCode == null || userCode.isBlank()) {
+            return new ExecutionResult("", "User code cannot be empty", false, "ERROR");
+        }
 
-    
+        if (expectedOutput == null || expectedOutput.isBlank()) {
+            return new ExecutionResult("", "Expected output not configured", false, "ERROR");
+        }
+        return null;
+    }
 
-    private static boolean judge(String stdout, String expected) {
-        String out = normalize(stdout);
-        String exp = normalize(expected);
+    static String prepareInput(String input) {
+        if (input == null || input.isBlank()) {
+            return "";
+        }
+        // ✅ Convert literal \n to actual newlines
+        String processedInput = input.replace("\\n", "\n");
 
-        // FLOAT compare (needed for Median problem)
-        if (looksNumeric(out) && looksNumeric(exp)) {
-            try {
-                double a = Double.parseDouble(out);
-                double b = Double.parseDouble(exp);
-                return Math.abs(a - b) <= FLOAT_EPS;
-            } catch (NumberFormatException ignored) {}
+        // ✅ Ensure input ends with newline for proper EOF
+        return processedInput.endsWith("\n") ? processedInput : processedInput + "\n";
+    }
+
+    // stdout: everything the program printed, at least up to outputLimit(expectedOutput) + 1 bytes
+    static ExecutionResult toResult(
+            byte[] output, String stderr, int exitCode, String expectedOutput, Checker checker) {
+
+        String stdout = storedText(output);
+        if (output.length > outputLimit(expectedOutput)) {
+            return outputLimitResult(stdout, stderr);
         }
 
-        // fallback exact match
-        return out.equals(exp);
+        // ❗ Correct runtime error detection
+        if (exitCode != 0) {
+            if (outOfMemory(stderr)) {
+                return memoryLimitResult();
+            }
+            return new ExecutionResult(
+                    stdout,
+                    stderr,
+                    false,
+                    "ERROR"
+            );
+        }
+
+        boolean passed;
+        try {
+            passed = checker.accepts(judgedText(output), expectedOutput);
+        } catch (CheckerException e) {
+            return checkerErrorResult(stdout, e);
+        }
+
+        return new ExecutionResult(
+                stdout,
+                stderr,
+                passed,
+                passed ? "PASSED" : "FAILED"
+        );
+    }
+
+    static ExecutionResult timeoutResult() {
+        return new ExecutionResult(
+                "",
+                "Time Limit Exceeded (" + TIMEOUT_SECONDS + "s)",
+                false,
+                "TIMEOUT"
+        );
+    }
+
+    static ExecutionResult outputLimitResult(String stdout, String stderr) {
+        return new ExecutionResult(
+                stdout,
+                OUTPUT_LIMIT_EXCEEDED + (stderr.isEmpty() ? "" : "\n" + stderr),
+                false,
+                "FAILED"
+        );
     }
 
-    private static boolean looksNumeric(String s) {
-        // ✅ IMPROVED: Handle scientific notation and edge cases
-        return s.matches("[-+]?(?:\\d+\\.?\\d*|\\.\\d+)(?:[eE][-+]?\\d+)?");
+    static ExecutionResult memoryLimitResult() {
+        return new ExecutionResult(
+                "",
+                "Memory Limit Exceeded (" + MEMORY_LIMIT_KB / 1024 + "MB)",
+                false,
+                "MEMORY_LIMIT"
+        );
+    }
+
+    static ExecutionResult checkerErrorResult(String stdout, CheckerException e) {
+        return new ExecutionResult(
+                stdout,
+                "Checker error: " + e.getMessage(),
+                false,
+                "ERROR"
+        );
+    }
+
+    // An allocation refused by the address-space limit ends the run with a MemoryError traceback
+    static boolean outOfMemory(String stderr) {
+        String last = stderr.stripTrailing();
+        last = last.substring(last.lastIndexOf('\n') + 1);
+        return last.equals("MemoryError") || last.startsWith("MemoryError:");
+    }
+
+    // ---------- JUDGING ----------
+
+    static String normalize(String s) {
+        return s == null ? "" : s.trim().replace("\r\n", "\n");
     }
 
-    private static String normalize(String s) {
-        return s == null ? "" : s.trim();
+    // ✅ One rule for every backend and checker: more stdout bytes than this is an
+    //    output-limit FAILED, anything up to it is judged in full
+    static long outputLimit(String expectedOutput) {
+        return normalize(expectedOutput).getBytes(StandardCharsets.UTF_8).length + (long) MAX_OUTPUT_CHARS;
+    }
+
+    // What checkers see: all of stdout, lines split as readStream does (CRLF and lone CR end a line)
+    static String judgedText(byte[] stdout) {
+        String text = new String(stdout, StandardCharsets.UTF_8).replace("\r\n", "\n").replace('\r', '\n');
+        return text.endsWith("\n") ? text.substring(0, text.length() - 1) : text;
+    }
+
+    // What is stored and shown: cut to MAX_OUTPUT_CHARS like any other captured stream
+    static String storedText(byte[] stdout) {
+        try {
+            return readStream(new ByteArrayInputStream(stdout));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // not from an in-memory stream
+        }
+    }
+
+    public static String sha256(String s) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(s.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     // ---------- STREAM ----------
 
-    private static String readStream(InputStream stream) throws IOException {
+    private static void writeInput(OutputStream stdin, String input) {
+        // ✅ FIXED: stdin handling with proper newline conversion
+        try (BufferedWriter writer =
+                     new BufferedWriter(
+                             new OutputStreamWriter(stdin, StandardCharsets.UTF_8))) {
+
+            String processedInput = prepareInput(input);
+            if (!processedInput.isEmpty()) {
+                writer.write(processedInput);
+                writer.flush();
+            }
+            // ✅ Close stdin to signal EOF to Python
+        } catch (IOException e) {
+            // Process stopped reading (exited or was killed); judged from its output
+        }
+    }
+
+    // Reads to EOF but only keeps the first CAPTURE_BYTES
+    private static String drain(InputStream stream) throws IOException {
+        ByteArrayOutputStream kept = new ByteArrayOutputStream();
+        boolean truncated = false;
+        byte[] buf = new byte[8192];
+        int n;
+
+        try (stream) {
+            while ((n = stream.read(buf)) != -1) {
+                truncated |= capture(kept, buf, n);
+            }
+        } catch (IOException e) {
+            // Closed because the process was killed; keep what arrived
+        }
+        return capturedText(kept.toByteArray(), truncated);
+    }
+
+    // Returns true when bytes had to be dropped
+    static boolean capture(ByteArrayOutputStream kept, byte[] buf, int n) {
+        int room = CAPTURE_BYTES - kept.size();
+        if (room > 0) {
+            kept.write(buf, 0, Math.min(room, n));
+        }
+        return room < n;
+    }
+
+    static String capturedText(byte[] bytes, boolean truncated) throws IOException {
+        String text = readStream(new ByteArrayInputStream(bytes));
+        return truncated && !text.endsWith(TRUNCATED) ? text + TRUNCATED : text;
+    }
+
+    static String readStream(InputStream stream) throws IOException {
         try (BufferedReader reader =
                      new BufferedReader(
                              new InputStreamReader(stream, StandardCharsets.UTF_8))) {
@@ -177,7 +499,7 @@ public class CodeExecutionUtil {
             while ((line = reader.readLine()) != null) {
                 int nextLen = sb.length() + line.length() + 1;
                 if (nextLen > MAX_OUTPUT_CHARS) {
-                    sb.append("\n[Output truncated]");
+                    sb.append(TRUNCATED);
                     break;
                 }
                 if (!first) sb.append("\n");
@@ -188,27 +510,49 @@ public class CodeExecutionUtil {
         }
     }
 
+    // Reads one ASCII header line of the worker/harness reply protocols
+    static String readProtocolLine(InputStream in) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b == -1) {
+                throw new EOFException("Python process exited");
+            }
+            sb.append((char) b);
+        }
+        return sb.toString();
+    }
+
     // ---------- CLEANUP ----------
 
-    private static void cleanup(Path tempDir) {
+    static void cleanup(Path tempDir) {
         if (tempDir == null) return;
         try {
-            Thread.sleep(100);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            deleteRecursively(tempDir, false);
+        } catch (IOException e) {
+            tempDir.toFile().deleteOnExit();
         }
-        deleteDirectory(tempDir.toFile());
     }
 
-    private static void deleteDirectory(File dir) {
-        if (!dir.exists()) return;
-        File[] files = dir.listFiles();
-        if (files != null) {
-            for (File f : files) {
-                if (f.isDirectory()) deleteDirectory(f);
-                else if (!f.delete()) f.deleteOnExit();
+    // Symlinks left behind by user code are removed, never followed
+    static void deleteRecursively(Path dir, boolean keepRoot) throws IOException {
+        if (!Files.exists(dir, LinkOption.NOFOLLOW_LINKS)) return;
+
+        Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
             }
-        }
-        if (!dir.delete()) dir.deleteOnExit();
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path d, IOException e) throws IOException {
+                if (e != null) throw e;
+                if (!keepRoot || !d.equals(dir)) {
+                    Files.delete(d);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
     }
-}
\ No newline at end of file
+}
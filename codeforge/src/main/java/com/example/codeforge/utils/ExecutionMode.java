@@ -0,0 +1,11 @@
+package com.example.codeforge.utils;
+
+/**
+ * How submissions are executed, selected with {@code execution.mode}.
+ */
+public enum ExecutionMode {
+    PROCESS,   // fresh python process per testcase (default)
+    POOL,      // reusable pre-started workers, see PythonWorkerPool
+    ZYGOTE,    // fork per testcase from a warm interpreter, see PythonZygote
+    BATCH      // all testcases of a submission in one interpreter, see PythonBatchRunner
+}
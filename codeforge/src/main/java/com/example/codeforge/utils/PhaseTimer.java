@@ -0,0 +1,70 @@
+package com.example.codeforge.utils;
+
+import com.example.codeforge.utils.CodeExecutionUtil.ExecutionResult;
+import com.example.codeforge.utils.CodeExecutionUtil.PhaseTimings;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stopwatch for the phases of one run. Starting a phase ends the previous one;
+ * a phase entered more than once accumulates. Used by a single thread.
+ */
+final class PhaseTimer {
+
+    enum Phase { SETUP, SPAWN, RUN, CAPTURE, JUDGE, CLEANUP }
+
+    private final long[] nanos = new long[Phase.values().length];
+    private Phase current;
+    private long since;
+
+    PhaseTimer() {
+        Arrays.fill(nanos, -1);
+    }
+
+    void start(Phase phase) {
+        long now = System.nanoTime();
+        stop(now);
+        current = phase;
+        since = now;
+    }
+
+    void stop() {
+        stop(System.nanoTime());
+    }
+
+    /** Records a phase measured elsewhere (e.g. reported by the interpreter). */
+    void record(Phase phase, long elapsedNanos) {
+        nanos[phase.ordinal()] = Math.max(nanos[phase.ordinal()], 0) + elapsedNanos;
+    }
+
+    PhaseTimings timings() {
+        return new PhaseTimings(
+                micros(Phase.SETUP),
+                micros(Phase.SPAWN),
+                micros(Phase.RUN),
+                micros(Phase.CAPTURE),
+                micros(Phase.JUDGE),
+                micros(Phase.CLEANUP));
+    }
+
+    /** Attaches the breakdown and makes the user-code run the official execution time. */
+    ExecutionResult applyTo(ExecutionResult result) {
+        stop();
+        ExecutionResult timed = result.withPhases(timings());
+        long run = nanos[Phase.RUN.ordinal()];
+        return run < 0 ? timed : timed.withExecutionTimeMs(TimeUnit.NANOSECONDS.toMillis(run));
+    }
+
+    private void stop(long now) {
+        if (current != null) {
+            record(current, now - since);
+            current = null;
+        }
+    }
+
+    private long micros(Phase phase) {
+        long value = nanos[phase.ordinal()];
+        return value < 0 ? -1 : TimeUnit.NANOSECONDS.toMicros(value);
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.codeforge.utils;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Registry of every live process tree started for judging, and the only place
+ * that kills them.
+ *
+ * {@link Process#destroyForcibly()} only reaches the direct child, so anything
+ * a submission spawned would keep running. Killing here signals the run and
+ * every current descendant directly. Once a run is over, the processes
+ * started after it are swept: what is left of its session (each run is a
+ * session leader, see {@link SandboxLauncher}), and whatever daemonized out
+ * of it, found by the {@value #RUN_TAG_ENV} variable it inherited. Whatever
+ * is still registered when the context closes is killed.
+ */
+@Component
+@Slf4j
+public class ProcessReaper {
+
+    static final String RUN_TAG_ENV = "CODEFORGE_RUN";
+    private static final Path LAST_PID = Path.of("/proc/sys/kernel/ns_last_pid");
+
+    private final Map<ProcessHandle, String> live = new ConcurrentHashMap<>(); // root -> run tag
+    private final String tagPrefix = ProcessHandle.current().pid() + "-";
+    private final AtomicLong tags = new AtomicLong();
+
+    // Sweeps leftovers off the judging thread
+    private final ExecutorService sweeper = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "process-reaper");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** A fresh run tag; must reach the run's environment before it starts. */
+    String newTag() {
+        return tagPrefix + tags.incrementAndGet();
+    }
+
+    String tag(ProcessBuilder builder) {
+        String tag = newTag();
+        builder.environment().put(RUN_TAG_ENV, tag);
+        return tag;
+    }
+
+    void track(ProcessHandle root, String tag) {
+        live.put(root, tag);
+    }
+
+    /** Kills {@code root} and everything it spawned, and forgets it. */
+    void kill(ProcessHandle root) {
+        String tag = live.remove(root);
+        killTree(root);
+        sweepLater(root.pid(), tag);
+    }
+
+    /**
+     * Forgets a run whose root process has exited. Background children it left
+     * behind are killed off the judging thread.
+     */
+    void release(ProcessHandle root) {
+        if (root.isAlive()) {
+            kill(root);
+            return;
+        }
+        sweepLater(root.pid(), live.remove(root));
+    }
+
+    /**
+     * Runs {@code task} once every sweep requested so far has finished, e.g.
+     * to reuse a run's directory only when nothing it left can still write there.
+     */
+    void afterSweeps(Runnable task) {
+        try {
+            sweeper.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    public int liveCount() {
+        return live.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (!live.isEmpty()) {
+            log.warn("Killing {} process trees still running at shutdown", live.size());
+        }
+        live.forEach((root, tag) -> {
+            killTree(root);
+            sweep(root.pid(), tag);
+        });
+        live.clear();
+        sweeper.shutdownNow();
+    }
+
+    // ---------- KILLING ----------
+
+    private static void killTree(ProcessHandle root) {
+        // ✅ Snapshot first: once the root dies its children are re-parented away from it
+        List<ProcessHandle> descendants = root.descendants().toList();
+
+        root.destroyForcibly();
+        descendants.forEach(ProcessHandle::destroyForcibly);
+    }
+
+    private void sweepLater(long rootPid, String tag) {
+        try {
+            sweeper.execute(() -> sweep(rootPid, tag));
+        } catch (RejectedExecutionException e) {
+            // Shutting down: sweep now
+            sweep(rootPid, tag);
+        }
+    }
+
+    /**
+     * Kills what is left in the run's session (its group included) and, for
+     * processes that daemonized out of it, whatever still carries its tag.
+     * Signals each process directly instead of forking {@code kill}.
+     */
+    private static void sweep(long rootPid, String tag) {
+        // ✅ Leftovers were started after the root: older pids are skipped unless the pid counter wrapped
+        long lastPid = lastPid();
+        long startedAfter = lastPid >= rootPid ? rootPid : 0;
+        String marker = tag == null ? null : RUN_TAG_ENV + "=" + tag + "\0";
+
+        try (Stream<Path> procs = Files.list(Path.of("/proc"))) {
+            for (Path proc : (Iterable<Path>) procs::iterator) {
+                long pid = pid(proc);
+                if (pid <= startedAfter) continue;
+
+                boolean leftover = (SandboxLauncher.isolated() && session(proc) == rootPid)
+                        || (marker != null && environment(proc).contains(marker));
+                if (leftover) {
+                    ProcessHandle.of(pid).ifPresent(ProcessHandle::destroyForcibly);
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Could not sweep leftovers of {}: {}", rootPid, e.toString());
+        }
+    }
+
+    private static long pid(Path proc) {
+        String name = proc.getFileName().toString();
+        return Character.isDigit(name.charAt(0)) ? Long.parseLong(name) : -1;
+    }
+
+    private static long lastPid() {
+        try {
+            return Long.parseLong(Files.readString(LAST_PID).trim());
+        } catch (IOException | RuntimeException e) {
+            return -1; // unknown: scan everything
+        }
+    }
+
+    private static long session(Path proc) {
+        try {
+            String stat = Files.readString(proc.resolve("stat"));
+            // Fields after the ")" that closes the command name: state is #3, session #6
+            return Long.parseLong(stat.substring(stat.lastIndexOf(')') + 2).split(" ", 5)[3]);
+        } catch (IOException | RuntimeException e) {
+            return -1; // exited
+        }
+    }
+
+    private static String environment(Path proc) {
+        try {
+            return new String(Files.readAllBytes(proc.resolve("environ")), StandardCharsets.ISO_8859_1);
+        } catch (IOException e) {
+            return ""; // exited, or not ours
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.codeforge.utils;
+
+import com.example.codeforge.utils.CodeExecutionUtil.ExecutionResult;
+import com.example.codeforge.utils.CodeExecutionUtil.JudgeCase;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+
+import static com.example.codeforge.utils.CodeExecutionUtil.*;
+
+/**
+ * Batch backend used when {@code execution.mode=BATCH}.
+ *
+ * Writes the solution once and runs every testcase of a submission inside a
+ * single {@code python/batch_harness.py} interpreter, which re-executes the
+ * compiled module per case with its own stdin, output capture and timer.
+ * If a case hangs or kills the interpreter, that case is judged on its own
+ * and a fresh harness continues with the remaining cases.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PythonBatchRunner {
+
+    private static final String HARNESS_SCRIPT = "python/batch_harness.py";
+    private static final long REPLY_GRACE_MS = 1000;
+
+    private final WorkspacePool workspaces;
+    private final ProcessReaper reaper;
+
+    private String script;
+
+    @PostConstruct
+    void loadHarness() throws IOException {
+        script = new ClassPathResource(HARNESS_SCRIPT).getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    public List<ExecutionResult> executeAndJudgeAll(String userCode, List<JudgeCase> cases) {
+        return executeAndJudgeAll(userCode, cases, (index, result) -> {}, () -> false);
+    }
+
+    /**
+     * Same as above, but {@code onResult} is called with each case's index and
+     * result as soon as that case finishes, and the run stops once
+     * {@code cancelled} returns true. Cases that never ran, or were cut short by
+     * an interrupt, are left null.
+     */
+    public List<ExecutionResult> executeAndJudgeAll(
+            String userCode,
+            List<JudgeCase> cases,
+            BiConsumer<Integer, ExecutionResult> onResult,
+            BooleanSupplier cancelled
+    ) {
+
+        ExecutionResult[] results = new ExecutionResult[cases.size()];
+        List<Integer> pending = new ArrayList<>();
+
+        for (int i = 0; i < cases.size(); i++) {
+            ExecutionResult invalid = validate(userCode, cases.get(i).expectedOutput());
+            if (invalid != null) {
+                record(results, i, invalid.withExecutionTimeMs(0), onResult);
+            } else {
+                pending.add(i);
+            }
+        }
+
+        if (pending.isEmpty()) {
+            return Arrays.asList(results);
+        }
+
+        Path tempDir = null;
+
+        try {
+            tempDir = workspaces.acquire();
+            Path codeFile = tempDir.resolve("solution.py");
+            Files.writeString(codeFile, userCode, StandardCharsets.UTF_8);
+
+            List<Integer> remaining = pending;
+            while (!remaining.isEmpty() && !cancelled.getAsBoolean()) {
+                int handled = runHarness(tempDir, codeFile, cases, remaining, results, onResult, cancelled);
+                remaining = remaining.subList(handled, remaining.size());
+            }
+
+        } catch (InterruptedException e) {
+            // ❗ Shutting down: unfinished cases stay null, an interrupt is no verdict
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            fill(results, pending, new ExecutionResult(
+                    "",
+                    "Execution error: " + e.getMessage(),
+                    false,
+                    "ERROR"
+            ), onResult);
+        } finally {
+            workspaces.release(tempDir);
+        }
+
+        return Arrays.asList(results);
+    }
+
+    // ---------- HARNESS ----------
+
+    /**
+     * Runs one harness over {@code order} and returns how many of those cases
+     * now have a result. Always handles at least one case.
+     */
+    private int runHarness(
+            Path tempDir,
+            Path codeFile,
+            List<JudgeCase> cases,
+            List<Integer> order,
+            ExecutionResult[] results,
+            BiConsumer<Integer, ExecutionResult> onResult,
+            BooleanSupplier cancelled
+    ) throws InterruptedException {
+
+        // CPU time is limited per case by the harness itself
+        ProcessBuilder builder = new ProcessBuilder(SandboxLauncher.command(
+                false,
+                PYTHON_CMD,
+                "-c",
+                script,
+                codeFile.toAbsolutePath().toString(),
+                String.valueOf(TIMEOUT_SECONDS),
+                String.valueOf(MAX_OUTPUT_CHARS)
+        ))
+                .directory(tempDir.toFile())
+                .redirectError(ProcessBuilder.Redirect.DISCARD);
+        String tag = reaper.tag(builder);
+
+        Process process;
+        try {
+            process = builder.start();
+        } catch (IOException e) {
+            fill(results, order, new ExecutionResult(
+                    "",
+                    "Python interpreter not found",
+                    false,
+                    "ERROR"
+            ), onResult);
+            return order.size();
+        }
+        reaper.track(process.toHandle(), tag);
+
+        BlockingQueue<Optional<HarnessReply>> replies = new LinkedBlockingQueue<>();
+        Thread reader = new Thread(
+                () -> readReplies(process.getInputStream(), order.size(), replies),
+                "python-batch-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        try {
+            writeCases(process.getOutputStream(), cases, order);
+
+            for (int done = 0; done < order.size(); done++) {
+                int index = order.get(done);
+                Optional<HarnessReply> reply = replies.poll(
+                        TimeUnit.SECONDS.toMillis(WALL_TIMEOUT_SECONDS) + REPLY_GRACE_MS,
+                        TimeUnit.MILLISECONDS);
+
+                if (reply == null) {
+                    // ❗ Asleep/blocked, or stuck where the in-process CPU timer could not fire
+                    record(results, index, timeoutResult()
+                            .withExecutionTimeMs(TimeUnit.SECONDS.toMillis(WALL_TIMEOUT_SECONDS)), onResult);
+                    return done + 1;
+                }
+
+                if (reply.isEmpty()) {
+                    // ❗ User code took the whole interpreter down
+                    process.waitFor(200, TimeUnit.MILLISECONDS);
+                    String exit = process.isAlive() ? "unknown" : String.valueOf(process.exitValue());
+                    record(results, index, new ExecutionResult(
+                            "",
+                            "Interpreter exited unexpectedly (exit code " + exit + ")",
+                            false,
+                            "ERROR"
+                    ).withExecutionTimeMs(0), onResult);
+                    return done + 1;
+                }
+
+                record(results, index, reply.get().toResult(cases.get(index)), onResult);
+
+                // ❗ The program swallowed its time limit: the harness cut it off and exited
+                if (reply.get().harnessExited() || cancelled.getAsBoolean()) {
+                    return done + 1;
+                }
+            }
+            return order.size();
+
+        } finally {
+            reaper.kill(process.toHandle());
+        }
+    }
+
+    private static void writeCases(OutputStream stream, List<JudgeCase> cases, List<Integer> order) {
+        try (OutputStream out = new BufferedOutputStream(stream)) {
+            out.write((order.size() + "\n").getBytes(StandardCharsets.US_ASCII));
+            for (int index : order) {
+                JudgeCase judgeCase = cases.get(index);
+                byte[] input = prepareInput(judgeCase.input()).getBytes(StandardCharsets.UTF_8);
+                long stdoutLimit = outputLimit(judgeCase.expectedOutput());
+                out.write((input.length + " " + stdoutLimit + "\n").getBytes(StandardCharsets.US_ASCII));
+                out.write(input);
+            }
+        } catch (IOException e) {
+            // Harness already gone; the reader reports it
+            log.debug("Batch harness closed stdin early: {}", e.getMessage());
+        }
+    }
+
+    private static void readReplies(
+            InputStream stream, int expected, BlockingQueue<Optional<HarnessReply>> replies) {
+
+        try (InputStream in = new BufferedInputStream(stream)) {
+            for (int i = 0; i < expected; i++) {
+                String[] header = readProtocolLine(in).split(" ");
+                byte[] stdout = in.readNBytes(Integer.parseInt(header[5]));
+                byte[] stderr = in.readNBytes(Integer.parseInt(header[6]));
+
+                replies.add(Optional.of(new HarnessReply(
+                        Integer.parseInt(header[0]),
+                        Integer.parseInt(header[1]),
+                        Long.parseLong(header[2]),
+                        Long.parseLong(header[3]),
+                        Long.parseLong(header[4]),
+                        stdout,
+                        readStream(new ByteArrayInputStream(stderr))
+                )));
+            }
+        } catch (IOException | RuntimeException e) {
+            replies.add(Optional.empty());
+        }
+    }
+
+    private static void fill(
+            ExecutionResult[] results,
+            List<Integer> indexes,
+            ExecutionResult result,
+            BiConsumer<Integer, ExecutionResult> onResult
+    ) {
+        for (int index : indexes) {
+            if (results[index] == null) {
+                record(results, index, result.withExecutionTimeMs(0), onResult);
+            }
+        }
+    }
+
+    private static void record(
+            ExecutionResult[] results,
+            int index,
+            ExecutionResult result,
+            BiConsumer<Integer, ExecutionResult> onResult
+    ) {
+        results[index] = result;
+        onResult.accept(index, result);
+    }
+
+    private record HarnessReply(
+            int exitCode,
+            int timedOut,  // 0 = no, 1 = yes, 2 = yes and the harness exited
+            long micros,
+            long cpuMicros,
+            long maxRssKb,
+            byte[] stdout,  // whole, up to the case's output limit + 1
+            String stderr
+    ) {
+        boolean harnessExited() {
+            return timedOut == 2;
+        }
+
+        ExecutionResult toResult(JudgeCase judgeCase) {
+            // Setup and spawn are shared by the whole batch, so only the run and judging are per case
+            PhaseTimer timer = new PhaseTimer();
+            timer.record(PhaseTimer.Phase.RUN, TimeUnit.MICROSECONDS.toNanos(micros));
+            timer.start(PhaseTimer.Phase.JUDGE);
+            ExecutionResult result = timedOut != 0
+                    ? timeoutResult()
+                    : CodeExecutionUtil.toResult(
+                            stdout, stderr, exitCode, judgeCase.expectedOutput(), judgeCase.checker());
+            return timer.applyTo(result).withUsage(cpuMicros / 1000, maxRssKb);
+        }
+    }
+}
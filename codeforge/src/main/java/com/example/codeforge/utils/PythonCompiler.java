@@ -0,0 +1,147 @@
+package com.example.codeforge.utils;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static com.example.codeforge.utils.CodeExecutionUtil.*;
+
+/**
+ * Compile-once cache for submitted sources.
+ *
+ * A long-lived {@code python/compiler.py} process turns source into a
+ * {@code .pyc} image, which is kept in memory by code hash. Testcase runs
+ * write the image next to the source and start it directly, so CPython skips
+ * parsing and compiling on every run. Images live only in this JVM, so a
+ * submission cannot tamper with what later runs of the same code execute.
+ */
+@Component
+@Slf4j
+public class PythonCompiler {
+
+    private static final String COMPILER_SCRIPT = "python/compiler.py";
+    private static final byte[] DOES_NOT_COMPILE = new byte[0];
+
+    @Value("${execution.bytecode-cache.max-entries:500}")
+    private int maxEntries; // 0 = disabled
+
+    private final ExecutorService ioExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "python-compiler-io");
+        t.setDaemon(true);
+        return t;
+    });
+    private Map<String, byte[]> images; // LRU, guarded by itself
+    private String script;
+    private Process compiler;
+    private OutputStream requests;
+    private InputStream replies;
+
+    @PostConstruct
+    void init() {
+        images = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * The {@code .pyc} image for {@code code}, or null when it does not compile
+     * (the run then reports the error from source) or the cache is disabled.
+     */
+    public byte[] compile(String code) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+
+        String hash = sha256(code);
+        byte[] image;
+        synchronized (images) {
+            image = images.get(hash);
+        }
+
+        if (image == null) {
+            image = compileNow(code);
+            if (image == null) {
+                return null; // compiler trouble: not cached, run from source
+            }
+            synchronized (images) {
+                images.put(hash, image);
+            }
+        }
+        return image.length == 0 ? null : image;
+    }
+
+    // ---------- COMPILER PROCESS ----------
+
+    private synchronized byte[] compileNow(String code) {
+        try {
+            if (compiler == null || !compiler.isAlive()) {
+                launch();
+            }
+
+            byte[] source = code.getBytes(StandardCharsets.UTF_8);
+            requests.write((source.length + "\n").getBytes(StandardCharsets.US_ASCII));
+            requests.write(source);
+            requests.flush();
+
+            Future<byte[]> reply = ioExecutor.submit(this::readReply);
+            try {
+                return reply.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } finally {
+                reply.cancel(true);
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            restart();
+            return null;
+        } catch (Exception e) {
+            // ❗ Hostile source can hang or crash the compiler; start over next time
+            log.warn("Python compiler failed, running from source: {}", e.toString());
+            restart();
+            return null;
+        }
+    }
+
+    private byte[] readReply() throws IOException {
+        String[] header = readProtocolLine(replies).split(" ");
+        byte[] image = replies.readNBytes(Integer.parseInt(header[1]));
+        return "1".equals(header[0]) ? image : DOES_NOT_COMPILE;
+    }
+
+    private void launch() throws IOException {
+        if (script == null) {
+            script = new ClassPathResource(COMPILER_SCRIPT).getContentAsString(StandardCharsets.UTF_8);
+        }
+        compiler = new ProcessBuilder(SandboxLauncher.command(false, PYTHON_CMD, "-c", script))
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        requests = new BufferedOutputStream(compiler.getOutputStream());
+        replies = new BufferedInputStream(compiler.getInputStream());
+        log.info("Python compiler started (pid {})", compiler.pid());
+    }
+
+    private void restart() {
+        if (compiler != null) {
+            compiler.destroyForcibly();
+            compiler = null;
+        }
+    }
+
+    @PreDestroy
+    synchronized void shutdown() {
+        restart();
+        ioExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.codeforge.utils;
+
+import com.example.codeforge.utils.CodeExecutionUtil.ExecutionResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static com.example.codeforge.utils.CodeExecutionUtil.*;
+
+/**
+ * Pool of pre-started Python interpreters used when {@code execution.mode=POOL}.
+ *
+ * Each worker runs {@code python/pool_worker.py}, which keeps the interpreter
+ * and common imports warm and forks a throwaway child for every run: whatever
+ * a submission patches or starts dies with its child, and the child cannot
+ * reach the worker's protocol pipes. Workers are still recycled after
+ * {@code execution.pool.max-runs-per-worker} runs, after a timeout, or when
+ * they crash.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PythonWorkerPool {
+
+    private static final String WORKER_SCRIPT = "python/pool_worker.py";
+
+    private final ProcessReaper reaper;
+
+    @Value("${execution.mode:PROCESS}")
+    private ExecutionMode executionMode;
+
+    @Value("${execution.pool.size:0}")
+    private int poolSize; // 0 = one worker per core
+
+    @Value("${execution.pool.max-runs-per-worker:100}")
+    private int maxRunsPerWorker;
+
+    @Value("${execution.pool.borrow-timeout-ms:10000}")
+    private long borrowTimeoutMs;
+
+    private final Set<Worker> workers = ConcurrentHashMap.newKeySet();
+    private BlockingQueue<Worker> idle;
+    private ExecutorService ioExecutor;
+    private String script;
+    private Path workDir;
+    private volatile boolean shuttingDown;
+
+    @PostConstruct
+    void start() throws IOException {
+        if (executionMode != ExecutionMode.POOL) {
+            return;
+        }
+
+        int size = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        script = new ClassPathResource(WORKER_SCRIPT).getContentAsString(StandardCharsets.UTF_8);
+        workDir = Files.createTempDirectory("codeforge_pool_");
+        idle = new LinkedBlockingQueue<>();
+        ioExecutor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "python-pool-io");
+            t.setDaemon(true);
+            return t;
+        });
+
+        for (int i = 0; i < size; i++) {
+            idle.add(spawn());
+        }
+        log.info("Python worker pool started with {} workers (max {} runs each)",
+                size, maxRunsPerWorker);
+    }
+
+    public boolean isEnabled() {
+        return idle != null;
+    }
+
+    public ExecutionResult executeAndJudge(
+            String userCode,
+            String input,
+            String expectedOutput,
+            Checker checker
+    ) {
+
+        ExecutionResult invalid = validate(userCode, expectedOutput);
+        if (invalid != null) {
+            return invalid;
+        }
+
+        PhaseTimer timer = new PhaseTimer();
+        return timer.applyTo(runOnWorker(timer, userCode, input, expectedOutput, checker));
+    }
+
+    private ExecutionResult runOnWorker(
+            PhaseTimer timer,
+            String userCode,
+            String input,
+            String expectedOutput,
+            Checker checker
+    ) {
+
+        // Waiting for an idle worker is this backend's setup; there is no spawn
+        timer.start(PhaseTimer.Phase.SETUP);
+        Worker worker;
+        try {
+            worker = borrow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ExecutionResult("", "Execution interrupted", false, "ERROR");
+        }
+
+        if (worker == null) {
+            return new ExecutionResult("", "No Python worker available", false, "ERROR");
+        }
+
+        boolean reusable = false;
+        try {
+            timer.start(PhaseTimer.Phase.RUN);
+            WorkerReply reply = worker.run(userCode, prepareInput(input), outputLimit(expectedOutput));
+            reusable = true;
+            timer.start(PhaseTimer.Phase.JUDGE);
+            return toResult(reply.stdout(), reply.stderr(), reply.exitCode(), expectedOutput, checker);
+
+        } catch (TimeoutException e) {
+            return timeoutResult();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ExecutionResult("", "Execution interrupted", false, "ERROR");
+        } catch (Exception e) {
+            log.warn("Python worker failed, recycling it: {}", e.getMessage());
+            return new ExecutionResult(
+                    "",
+                    "Execution error: " + e.getMessage(),
+                    false,
+                    "ERROR"
+            );
+        } finally {
+            timer.start(PhaseTimer.Phase.CLEANUP);
+            release(worker, reusable);
+            timer.stop();
+        }
+    }
+
+    // ---------- LIFECYCLE ----------
+
+    private Worker borrow() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMs);
+
+        while (true) {
+            long remaining = deadline - System.nanoTime();
+            Worker worker = idle.poll(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+            if (worker == null || worker.process.isAlive()) {
+                return worker;
+            }
+            // ❗ Crashed while idle
+            retire(worker);
+        }
+    }
+
+    private void release(Worker worker, boolean reusable) {
+        if (reusable && !shuttingDown
+                && worker.process.isAlive()
+                && worker.runs < maxRunsPerWorker) {
+            idle.offer(worker);
+        } else {
+            retire(worker);
+        }
+    }
+
+    private void retire(Worker worker) {
+        // ❗ Whole tree: user code runs inside the worker and may have spawned children
+        reaper.kill(worker.process.toHandle());
+        workers.remove(worker);
+
+        if (!shuttingDown) {
+            // Spawn the replacement off the judging thread
+            ioExecutor.execute(() -> {
+                try {
+                    idle.offer(spawn());
+                } catch (IOException e) {
+                    log.error("Could not start replacement Python worker", e);
+                }
+            });
+        }
+    }
+
+    private Worker spawn() throws IOException {
+        // Long-lived: no per-run CPU limit, the worker protocol enforces the timeout
+        ProcessBuilder builder = new ProcessBuilder(SandboxLauncher.command(
+                false,
+                PYTHON_CMD,
+                "-c",
+                script,
+                String.valueOf(MAX_OUTPUT_CHARS)
+        ))
+                .directory(workDir.toFile())
+                .redirectError(ProcessBuilder.Redirect.DISCARD);
+        String tag = reaper.tag(builder);
+
+        Process process = builder.start();
+        reaper.track(process.toHandle(), tag);
+
+        Worker worker = new Worker(process);
+        workers.add(worker);
+        return worker;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (!isEnabled()) {
+            return;
+        }
+        shuttingDown = true;
+        workers.forEach(w -> reaper.kill(w.process.toHandle()));
+        workers.clear();
+        ioExecutor.shutdownNow();
+        cleanup(workDir);
+    }
+
+    // ---------- WORKER ----------
+
+    private record WorkerReply(int exitCode, byte[] stdout, String stderr) {}
+
+    private final class Worker {
+
+        private final Process process;
+        private final OutputStream requests;
+        private final InputStream replies;
+        private int runs;
+
+        private Worker(Process process) {
+            this.process = process;
+            this.requests = new BufferedOutputStream(process.getOutputStream());
+            this.replies = new BufferedInputStream(process.getInputStream());
+        }
+
+        private WorkerReply run(String code, String input, long outputLimit)
+                throws IOException, InterruptedException, ExecutionException, TimeoutException {
+
+            byte[] codeBytes = code.getBytes(StandardCharsets.UTF_8);
+            byte[] inputBytes = input.getBytes(StandardCharsets.UTF_8);
+
+            requests.write((codeBytes.length + " " + inputBytes.length + " " + outputLimit + "\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            requests.write(codeBytes);
+            requests.write(inputBytes);
+            requests.flush();
+            runs++;
+
+            Future<WorkerReply> reply = ioExecutor.submit(this::readReply);
+            try {
+                return reply.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } finally {
+                // No-op when done; otherwise the worker is retired by the caller
+                reply.cancel(true);
+            }
+        }
+
+        private WorkerReply readReply() throws IOException {
+            String[] header = readProtocolLine(replies).split(" ");
+            int exitCode = Integer.parseInt(header[0]);
+            byte[] stdout = replies.readNBytes(Integer.parseInt(header[1]));
+            byte[] stderr = replies.readNBytes(Integer.parseInt(header[2]));
+
+            // stdout whole, to be judged like the cold-spawn path; stderr only shown
+            return new WorkerReply(exitCode, stdout, readStream(new ByteArrayInputStream(stderr)));
+        }
+    }
+}
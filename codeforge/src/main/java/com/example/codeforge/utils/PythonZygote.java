@@ -0,0 +1,302 @@
+package com.example.codeforge.utils;
+
+import com.example.codeforge.utils.CodeExecutionUtil.ExecutionResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.example.codeforge.utils.CodeExecutionUtil.*;
+
+/**
+ * Fork-server backend used when {@code execution.mode=ZYGOTE}.
+ *
+ * A single long-lived {@code python/zygote.py} process pre-imports common
+ * stdlib modules and forks one child per testcase. Every run is still its own
+ * process with its own stdin/stdout, but starts from a warm interpreter image
+ * instead of a cold {@code python} launch.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PythonZygote {
+
+    private static final String ZYGOTE_SCRIPT = "python/zygote.py";
+
+    private final WorkspacePool workspaces;
+    private final ProcessReaper reaper;
+
+    @Value("${execution.mode:PROCESS}")
+    private ExecutionMode executionMode;
+
+    private final Map<Long, ZygoteRun> runs = new ConcurrentHashMap<>();
+    private final AtomicLong runIds = new AtomicLong();
+    private String script;
+    private Process zygote;
+    private Writer commands;
+    private volatile boolean shuttingDown;
+
+    @PostConstruct
+    void start() throws IOException {
+        if (executionMode != ExecutionMode.ZYGOTE) {
+            return;
+        }
+        script = new ClassPathResource(ZYGOTE_SCRIPT).getContentAsString(StandardCharsets.UTF_8);
+        launch();
+    }
+
+    public boolean isEnabled() {
+        return script != null;
+    }
+
+    public ExecutionResult executeAndJudge(
+            String userCode,
+            byte[] bytecode,  // precompiled solution.pyc, or null to compile in the child
+            String input,
+            String expectedOutput,
+            Checker checker
+    ) {
+
+        ExecutionResult invalid = validate(userCode, expectedOutput);
+        if (invalid != null) {
+            return invalid;
+        }
+
+        PhaseTimer timer = new PhaseTimer();
+        return timer.applyTo(runForked(timer, userCode, bytecode, input, expectedOutput, checker));
+    }
+
+    private ExecutionResult runForked(
+            PhaseTimer timer,
+            String userCode,
+            byte[] bytecode,
+            String input,
+            String expectedOutput,
+            Checker checker
+    ) {
+
+        long id = runIds.incrementAndGet();
+        ZygoteRun run = new ZygoteRun(reaper.newTag());
+        runs.put(id, run);
+        Path tempDir = null;
+
+        try {
+            timer.start(PhaseTimer.Phase.SETUP);
+            tempDir = workspaces.acquire();
+            Files.writeString(tempDir.resolve("solution.py"), userCode, StandardCharsets.UTF_8);
+            if (bytecode != null) {
+                Files.write(tempDir.resolve("solution.pyc"), bytecode);
+            }
+            Files.writeString(tempDir.resolve("input.txt"), prepareInput(input), StandardCharsets.UTF_8);
+
+            // ❗ Room for stdout up to the output limit, so exceeding it is seen here, not as EFBIG
+            long stdoutLimit = outputLimit(expectedOutput);
+            long maxFileBytes = Math.max(SandboxLauncher.MAX_FILE_BYTES, stdoutLimit + 1);
+
+            timer.start(PhaseTimer.Phase.SPAWN);
+            send("RUN " + id + " " + SandboxLauncher.processLimit() + " " + maxFileBytes
+                    + " " + run.tag + " " + tempDir.toAbsolutePath());
+
+            ResourceWatch watch;
+            try {
+                long pid = run.pid.get(WALL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                watch = new ResourceWatch(pid);
+                run.handle = ProcessHandle.of(pid).orElse(null);
+                if (run.handle != null) {
+                    reaper.track(run.handle, run.tag);
+                }
+            } catch (TimeoutException e) {
+                return timeoutResult();
+            }
+
+            timer.start(PhaseTimer.Phase.RUN);
+            ResourceWatch.Outcome outcome = watch.await(ms -> isDone(run.exit, ms));
+            if (outcome != ResourceWatch.Outcome.EXITED) {
+                timer.start(PhaseTimer.Phase.CLEANUP);
+                kill(run);
+                return watch.applyTo(outcome == ResourceWatch.Outcome.MEMORY_LIMIT
+                        ? memoryLimitResult()
+                        : timeoutResult());
+            }
+
+            // ✅ Exact usage from wait4 replaces the last sample
+            ChildExit exit = run.exit.get();
+            watch.record(exit.cpuMicros() / 1000, exit.peakMemoryKb());
+
+            if (exit.code() == SandboxLauncher.SIGXCPU_EXIT) {
+                return watch.applyTo(timeoutResult());
+            }
+
+            timer.start(PhaseTimer.Phase.CAPTURE);
+            byte[] stdout = readOutput(tempDir.resolve("stdout.txt"), stdoutLimit + 1);
+            String stderr = storedText(readOutput(tempDir.resolve("stderr.txt"), CAPTURE_BYTES));
+
+            timer.start(PhaseTimer.Phase.JUDGE);
+            if (exit.code() == SandboxLauncher.SIGXFSZ_EXIT) {
+                return watch.applyTo(outputLimitResult(storedText(stdout), stderr));
+            }
+            return watch.applyTo(toResult(stdout, stderr, exit.code(), expectedOutput, checker));
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            kill(run);
+            return new ExecutionResult("", "Execution interrupted", false, "ERROR");
+        } catch (Exception e) {
+            kill(run);
+            return new ExecutionResult(
+                    "",
+                    "Execution error: " + e.getMessage(),
+                    false,
+                    "ERROR"
+            );
+        } finally {
+            timer.start(PhaseTimer.Phase.CLEANUP);
+            runs.remove(id);
+            release(run);
+            workspaces.release(tempDir);
+            timer.stop();
+        }
+    }
+
+    // ---------- ZYGOTE PROCESS ----------
+
+    private synchronized void launch() throws IOException {
+        // ❗ Not wrapped: the zygote forks every run, so a process-count or CPU
+        // limit on it would throttle judging. Each child sets its own limits.
+        zygote = new ProcessBuilder(
+                PYTHON_CMD,
+                "-c",
+                script,
+                String.valueOf(SandboxLauncher.ADDRESS_SPACE_BYTES),
+                String.valueOf(SandboxLauncher.CPU_SOFT_SECONDS),
+                String.valueOf(SandboxLauncher.CPU_HARD_SECONDS)
+        )
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+
+        commands = new BufferedWriter(
+                new OutputStreamWriter(zygote.getOutputStream(), StandardCharsets.UTF_8));
+
+        Process current = zygote;
+        Thread reader = new Thread(() -> readEvents(current), "python-zygote-events");
+        reader.setDaemon(true);
+        reader.start();
+
+        log.info("Python zygote started (pid {})", zygote.pid());
+    }
+
+    private synchronized void send(String command) throws IOException {
+        if (!zygote.isAlive()) {
+            log.warn("Python zygote died, restarting");
+            launch();
+        }
+        commands.write(command);
+        commands.write('\n');
+        commands.flush();
+    }
+
+    private void readEvents(Process process) {
+        try (BufferedReader events = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+
+            String line;
+            while ((line = events.readLine()) != null) {
+                String[] parts = line.split(" ");
+                ZygoteRun run = runs.get(Long.parseLong(parts[1]));
+                if (run == null) continue;
+
+                if ("PID".equals(parts[0])) {
+                    run.pid.complete(Long.parseLong(parts[2]));
+                } else if ("EXIT".equals(parts[0])) {
+                    run.exit.complete(new ChildExit(
+                            Integer.parseInt(parts[2]),
+                            Long.parseLong(parts[3]),
+                            Long.parseLong(parts[4])));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            if (!shuttingDown) {
+                log.error("Lost connection to Python zygote", e);
+            }
+        }
+
+        // ❗ Zygote gone: fail everything that was waiting on it
+        IOException gone = new IOException("Python zygote exited");
+        runs.values().forEach(run -> {
+            run.pid.completeExceptionally(gone);
+            run.exit.completeExceptionally(gone);
+        });
+    }
+
+    private static boolean isDone(Future<?> future, long millis) throws InterruptedException {
+        try {
+            future.get(millis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            // Zygote gone; surfaced by the caller's get()
+        }
+        return true;
+    }
+
+    private void kill(ZygoteRun run) {
+        // The handle remembers the start time, so a reused pid is never killed
+        if (run.handle != null) {
+            reaper.kill(run.handle);
+            return;
+        }
+        Long pid = run.pid.getNow(null);
+        if (pid != null) {
+            ProcessHandle.of(pid).ifPresent(reaper::kill);
+        }
+    }
+
+    private void release(ZygoteRun run) {
+        if (run.handle != null) {
+            reaper.release(run.handle);
+        }
+    }
+
+    private static byte[] readOutput(Path file, long maxBytes) throws IOException {
+        if (!Files.exists(file)) {
+            return new byte[0];
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            return in.readNBytes((int) Math.min(maxBytes, Integer.MAX_VALUE));
+        }
+    }
+
+    @PreDestroy
+    synchronized void shutdown() {
+        if (!isEnabled()) {
+            return;
+        }
+        shuttingDown = true;
+        runs.values().forEach(this::kill);
+        zygote.destroyForcibly();
+    }
+
+    private record ChildExit(int code, long cpuMicros, long peakMemoryKb) {}
+
+    private static final class ZygoteRun {
+        private final String tag;
+        private final CompletableFuture<Long> pid = new CompletableFuture<>();
+        private final CompletableFuture<ChildExit> exit = new CompletableFuture<>();
+        private volatile ProcessHandle handle;
+
+        private ZygoteRun(String tag) {
+            this.tag = tag;
+        }
+    }
+}
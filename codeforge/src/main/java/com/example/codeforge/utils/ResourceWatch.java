@@ -0,0 +1,103 @@
+package com.example.codeforge.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.codeforge.utils.CodeExecutionUtil.*;
+
+/**
+ * Enforces the CPU-time and memory limits of one running process.
+ *
+ * Samples {@code /proc/<pid>} every few milliseconds: user+sys CPU time is
+ * checked against {@code TIMEOUT_SECONDS} and peak RSS (VmHWM) against
+ * {@code MEMORY_LIMIT_KB}. Wall-clock time is only a generous backstop for
+ * programs that sleep or block, so a run that was merely descheduled on a busy
+ * judge box is no longer reported as TIMEOUT.
+ *
+ * The usage it reports is the last sample, up to {@code SAMPLE_MS} stale and
+ * -1 for a run shorter than that. Backends replace it with exact figures through
+ * {@link #record} only when a process the submission cannot touch took them
+ * (the zygote's {@code wait4}); a cold run keeps the sample, since anything its
+ * own interpreter reported could be forged by the code it runs.
+ */
+final class ResourceWatch {
+
+    enum Outcome { EXITED, CPU_LIMIT, MEMORY_LIMIT, WALL_LIMIT }
+
+    @FunctionalInterface
+    interface ExitWait {
+        // true once the process has exited
+        boolean await(long millis) throws InterruptedException;
+    }
+
+    private static final long SAMPLE_MS = 10;
+    private static final long MILLIS_PER_TICK = 10; // /proc reports USER_HZ (100) ticks
+
+    private final long pid;
+    private volatile long cpuTimeMs = -1;
+    private volatile long peakMemoryKb = -1;
+
+    ResourceWatch(long pid) {
+        this.pid = pid;
+    }
+
+    Outcome await(ExitWait exit) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(WALL_TIMEOUT_SECONDS);
+        long cpuLimitMs = TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS);
+
+        while (true) {
+            if (exit.await(SAMPLE_MS)) return Outcome.EXITED;
+
+            sample();
+            if (cpuTimeMs > cpuLimitMs) return Outcome.CPU_LIMIT;
+            if (peakMemoryKb > MEMORY_LIMIT_KB) return Outcome.MEMORY_LIMIT;
+            if (System.nanoTime() > deadline) return Outcome.WALL_LIMIT;
+        }
+    }
+
+    /** Replaces the sampled values with exact ones (e.g. from wait4). */
+    void record(long cpuTimeMs, long peakMemoryKb) {
+        this.cpuTimeMs = cpuTimeMs;
+        this.peakMemoryKb = peakMemoryKb;
+    }
+
+    long cpuTimeMs() {
+        return cpuTimeMs;
+    }
+
+    long peakMemoryKb() {
+        return peakMemoryKb;
+    }
+
+    ExecutionResult applyTo(ExecutionResult result) {
+        return result.withUsage(cpuTimeMs, peakMemoryKb);
+    }
+
+    // ---------- SAMPLING ----------
+
+    private void sample() {
+        Path proc = Path.of("/proc", String.valueOf(pid));
+        try {
+            String stat = Files.readString(proc.resolve("stat"));
+            // Fields after the ")" that closes the command name: state is #3, utime #14, stime #15
+            String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+            cpuTimeMs = (Long.parseLong(fields[11]) + Long.parseLong(fields[12])) * MILLIS_PER_TICK;
+
+            for (String line : Files.readAllLines(proc.resolve("status"))) {
+                if (line.startsWith("VmHWM:")) {
+                    peakMemoryKb = Long.parseLong(line.replaceAll("\\D", ""));
+                    break;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // No /proc (or already exited): fall back to what the JDK can tell us
+            ProcessHandle.of(pid)
+                    .flatMap(p -> p.info().totalCpuDuration())
+                    .map(Duration::toMillis)
+                    .ifPresent(ms -> cpuTimeMs = ms);
+        }
+    }
+}
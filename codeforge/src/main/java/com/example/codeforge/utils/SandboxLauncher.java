@@ -0,0 +1,148 @@
+package com.example.codeforge.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.example.codeforge.utils.CodeExecutionUtil.*;
+
+/**
+ * Wraps interpreter commands so the kernel enforces hard resource limits.
+ *
+ * Every process is started as {@code setsid prlimit ... <command>}: it gets its
+ * own session and process group, and a capped address space, file size and
+ * process count. Both tools exec in place, so the pid Java sees is still the
+ * interpreter's. {@link ResourceWatch} keeps deciding the verdicts; these
+ * limits stop a run that outpaces the sampler from hurting the rest of the host.
+ * Where the tools are missing (e.g. a developer's Mac) commands run unwrapped.
+ */
+@Slf4j
+final class SandboxLauncher {
+
+    // Virtual size, not RSS: CPython maps far more than it touches
+    static final long ADDRESS_SPACE_BYTES = 4 * MEMORY_LIMIT_KB * 1024;
+    static final long MAX_FILE_BYTES = 1L << 20;
+    // SIGXCPU at the soft limit, SIGKILL at the hard one
+    static final long CPU_SOFT_SECONDS = TIMEOUT_SECONDS + 1;
+    static final long CPU_HARD_SECONDS = TIMEOUT_SECONDS + 2;
+    static final int SIGXCPU_EXIT = 128 + 24;
+    // Past the file-size limit: write() fails with EFBIG (SIGXFSZ ignored) or the process is killed
+    static final int SIGXFSZ_EXIT = 128 + 25;
+
+    // RLIMIT_NPROC counts every task of the uid, JVM threads included
+    private static final int EXTRA_PROCESSES = 64;
+    private static final long TASK_COUNT_TTL_MS = 2000;
+
+    private static final boolean AVAILABLE = onPath("setsid") && onPath("prlimit");
+    private static final String UID = ownUid();
+    private static volatile long uidTasks;
+    private static volatile long uidTasksCountedAt;
+
+    static {
+        if (!AVAILABLE) {
+            log.warn("setsid/prlimit not found: submissions run without kernel resource limits");
+        }
+    }
+
+    private SandboxLauncher() {}
+
+    /**
+     * {@code command} wrapped in its own process group with address-space,
+     * file-size and process-count limits. {@code perRunCpuLimit} adds a CPU
+     * limit and is only for processes that live for a single run; long-lived
+     * workers would accumulate CPU across runs.
+     */
+    static List<String> command(boolean perRunCpuLimit, String... command) {
+        if (!AVAILABLE) {
+            return List.of(command);
+        }
+
+        List<String> wrapped = new ArrayList<>(command.length + 6);
+        wrapped.add("setsid");
+        wrapped.add("prlimit");
+        wrapped.add("--as=" + ADDRESS_SPACE_BYTES);
+        wrapped.add("--fsize=" + MAX_FILE_BYTES);
+        wrapped.add("--nproc=" + processLimit());
+        if (perRunCpuLimit) {
+            wrapped.add("--cpu=" + CPU_SOFT_SECONDS + ":" + CPU_HARD_SECONDS);
+        }
+        wrapped.addAll(List.of(command));
+        return wrapped;
+    }
+
+    /** Whether wrapped commands really start in their own process group. */
+    static boolean isolated() {
+        return AVAILABLE;
+    }
+
+    /** Current task count of this uid plus room for the run's own threads and children. */
+    static long processLimit() {
+        long now = System.currentTimeMillis();
+        if (now - uidTasksCountedAt > TASK_COUNT_TTL_MS) {
+            uidTasks = countUidTasks();
+            uidTasksCountedAt = now;
+        }
+        return uidTasks + EXTRA_PROCESSES;
+    }
+
+    // ---------- HELPERS ----------
+
+    private static long countUidTasks() {
+        if (UID == null) {
+            return 0;
+        }
+        long tasks = 0;
+        try (Stream<Path> procs = Files.list(Path.of("/proc"))) {
+            for (Path proc : (Iterable<Path>) procs::iterator) {
+                if (!Character.isDigit(proc.getFileName().toString().charAt(0))) continue;
+                tasks += uidThreads(proc.resolve("status"));
+            }
+        } catch (IOException e) {
+            log.debug("Could not count tasks for uid {}: {}", UID, e.toString());
+        }
+        return tasks;
+    }
+
+    private static long uidThreads(Path status) {
+        try {
+            boolean ours = false;
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("Uid:")) {
+                    ours = UID.equals(line.split("\\s+")[1]);
+                    if (!ours) return 0;
+                } else if (ours && line.startsWith("Threads:")) {
+                    return Long.parseLong(line.split("\\s+")[1]);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Exited while we were looking
+        }
+        return 0;
+    }
+
+    private static String ownUid() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("Uid:")) {
+                    return line.split("\\s+")[1];
+                }
+            }
+        } catch (IOException e) {
+            // No /proc
+        }
+        return null;
+    }
+
+    private static boolean onPath(String tool) {
+        String path = System.getenv("PATH");
+        if (path == null) return false;
+        return Stream.of(path.split(File.pathSeparator))
+                .anyMatch(dir -> Files.isExecutable(Path.of(dir, tool)));
+    }
+}
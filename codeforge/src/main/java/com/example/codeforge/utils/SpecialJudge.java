@@ -0,0 +1,229 @@
+package com.example.codeforge.utils;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static com.example.codeforge.utils.CodeExecutionUtil.*;
+
+/**
+ * Runs the checker programs attached to {@code SPECIAL} problems.
+ *
+ * Checkers run in long-lived {@code python/checker_host.py} processes that
+ * load each checker once and keep it by hash, so only the first testcase a
+ * host judges for a problem pays for compiling it. Hosts start on first use
+ * (up to {@code execution.checker.hosts}) and are replaced when a checker
+ * hangs or crashes them.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SpecialJudge {
+
+    private static final String HOST_SCRIPT = "python/checker_host.py";
+
+    private final ProcessReaper reaper;
+
+    @Value("${execution.checker.hosts:0}")
+    private int maxHosts; // 0 = one per core
+
+    @Value("${execution.checker.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private final Set<Host> hosts = ConcurrentHashMap.newKeySet();
+    private final BlockingQueue<Host> idle = new LinkedBlockingQueue<>();
+    private final ExecutorService ioExecutor = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "special-judge-io");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile String script;
+    private volatile boolean shuttingDown;
+
+    /**
+     * A checker for one testcase. {@code checkerHash} identifies
+     * {@code checkerCode} (see {@link CodeExecutionUtil#sha256}); the checker
+     * sees the input exactly as the submission read it.
+     */
+    public Checker checker(String checkerHash, String checkerCode, String input) {
+        if (checkerCode == null || checkerCode.isBlank()) {
+            return (output, expected) -> {
+                throw new CheckerException("No checker program configured");
+            };
+        }
+        String stdin = prepareInput(input);
+        return (output, expected) -> check(checkerHash, checkerCode, stdin, expected, output);
+    }
+
+    public int hostCount() {
+        return hosts.size();
+    }
+
+    private boolean check(String hash, String code, String input, String expected, String output) {
+        Host host;
+        try {
+            host = borrow();
+        } catch (IOException e) {
+            throw new CheckerException("Could not start checker host: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CheckerException("Interrupted");
+        }
+
+        boolean healthy = false;
+        try {
+            HostReply reply = host.ask(hash, null, input, expected, output);
+            if (reply.status() == 'M') {
+                // ✅ First time this host sees the checker: send the code once
+                reply = host.ask(hash, code, input, expected, output);
+            }
+            healthy = true;
+
+            return switch (reply.status()) {
+                case '1' -> true;
+                case '0' -> false;
+                default -> throw new CheckerException(reply.message().isBlank()
+                        ? "checker failed"
+                        : reply.message().strip());
+            };
+
+        } catch (TimeoutException e) {
+            throw new CheckerException("Checker timed out after " + timeoutMs + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CheckerException("Interrupted");
+        } catch (IOException | ExecutionException e) {
+            log.warn("Checker host failed, replacing it: {}", e.toString());
+            throw new CheckerException("Checker host failed");
+        } finally {
+            release(host, healthy);
+        }
+    }
+
+    // ---------- HOSTS ----------
+
+    private Host borrow() throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+
+        while (true) {
+            Host host = idle.poll();
+            if (host == null) {
+                host = launchIfRoom();
+            }
+            if (host == null) {
+                long remaining = deadline - System.nanoTime();
+                host = idle.poll(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+                if (host == null) {
+                    throw new CheckerException("No checker host available");
+                }
+            }
+            if (host.process.isAlive()) {
+                return host;
+            }
+            // ❗ Crashed while idle
+            retire(host);
+        }
+    }
+
+    private synchronized Host launchIfRoom() throws IOException {
+        int capacity = maxHosts > 0 ? maxHosts : Runtime.getRuntime().availableProcessors();
+        if (shuttingDown || hosts.size() >= capacity) {
+            return null;
+        }
+        if (script == null) {
+            script = new ClassPathResource(HOST_SCRIPT).getContentAsString(StandardCharsets.UTF_8);
+        }
+
+        // Long-lived: no per-run CPU limit, the reply timeout bounds each check
+        ProcessBuilder builder = new ProcessBuilder(SandboxLauncher.command(false, PYTHON_CMD, "-c", script))
+                .redirectError(ProcessBuilder.Redirect.DISCARD);
+        String tag = reaper.tag(builder);
+
+        Process process = builder.start();
+        reaper.track(process.toHandle(), tag);
+
+        Host host = new Host(process);
+        hosts.add(host);
+        log.info("Checker host started (pid {})", process.pid());
+        return host;
+    }
+
+    private void release(Host host, boolean healthy) {
+        if (healthy && !shuttingDown && host.process.isAlive()) {
+            idle.offer(host);
+        } else {
+            retire(host);
+        }
+    }
+
+    private void retire(Host host) {
+        reaper.kill(host.process.toHandle());
+        hosts.remove(host);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        shuttingDown = true;
+        hosts.forEach(h -> reaper.kill(h.process.toHandle()));
+        hosts.clear();
+        idle.clear();
+        ioExecutor.shutdownNow();
+    }
+
+    // ---------- HOST ----------
+
+    private record HostReply(char status, String message) {}
+
+    private final class Host {
+
+        private final Process process;
+        private final OutputStream requests;
+        private final InputStream replies;
+
+        private Host(Process process) {
+            this.process = process;
+            this.requests = new BufferedOutputStream(process.getOutputStream());
+            this.replies = new BufferedInputStream(process.getInputStream());
+        }
+
+        private HostReply ask(String hash, String code, String input, String expected, String output)
+                throws IOException, InterruptedException, ExecutionException, TimeoutException {
+
+            byte[] codeBytes = code == null ? new byte[0] : code.getBytes(StandardCharsets.UTF_8);
+            byte[] inputBytes = input.getBytes(StandardCharsets.UTF_8);
+            byte[] expectedBytes = expected.getBytes(StandardCharsets.UTF_8);
+            byte[] outputBytes = output.getBytes(StandardCharsets.UTF_8);
+
+            requests.write((hash + " " + codeBytes.length + " " + inputBytes.length + " "
+                    + expectedBytes.length + " " + outputBytes.length + "\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            requests.write(codeBytes);
+            requests.write(inputBytes);
+            requests.write(expectedBytes);
+            requests.write(outputBytes);
+            requests.flush();
+
+            Future<HostReply> reply = ioExecutor.submit(this::readReply);
+            try {
+                return reply.get(timeoutMs, TimeUnit.MILLISECONDS);
+            } finally {
+                // No-op when done; otherwise the host is retired by the caller
+                reply.cancel(true);
+            }
+        }
+
+        private HostReply readReply() throws IOException {
+            String[] header = readProtocolLine(replies).split(" ");
+            byte[] message = replies.readNBytes(Integer.parseInt(header[1]));
+            return new HostReply(header[0].charAt(0), new String(message, StandardCharsets.UTF_8));
+        }
+    }
+}
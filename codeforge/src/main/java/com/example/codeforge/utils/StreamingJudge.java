@@ -0,0 +1,215 @@
+package com.example.codeforge.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static com.example.codeforge.utils.CodeExecutionUtil.*;
+
+/**
+ * Judges a program's stdout while it is still being written.
+ *
+ * For {@link Checkers#EXACT} it applies the same rules (trimmed exact match,
+ * or a single float within tolerance) but byte by byte, so a wrong or runaway
+ * output is rejected at the first byte that can no longer match. Other
+ * checkers need the whole output, which is buffered and judged by
+ * {@link #passed()}; the output limit shared with every backend is enforced for
+ * both. {@code onReject} is called on rejection so the caller can kill the
+ * process.
+ */
+final class StreamingJudge {
+
+    private enum State { LEADING, MATCHING, TRAILING }
+
+    private final byte[] expected;
+    private final String expectedText;
+    private final Checker checker;
+    private final boolean streaming;
+    private final boolean numeric;
+    private final long outputLimit;
+    private final Runnable onReject;
+
+    private final ByteArrayOutputStream captured = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream whole = new ByteArrayOutputStream(); // non-streaming checkers only
+    private final ByteArrayOutputStream token = new ByteArrayOutputStream();
+    private State state = State.LEADING;
+    private int pos;
+    private long offset;
+    private long tokenStart = -1;
+    private long pendingCr = -1;
+    private boolean truncated;
+
+    private volatile boolean rejected;
+    private volatile boolean outputLimitExceeded;
+    private volatile long mismatchOffset = -1;
+    private volatile boolean passed;
+
+    StreamingJudge(String expectedOutput, Checker checker, Runnable onReject) {
+        this.expectedText = normalize(expectedOutput);
+        this.expected = expectedText.getBytes(StandardCharsets.UTF_8);
+        this.checker = checker;
+        this.streaming = checker == Checkers.EXACT;
+        this.numeric = Checkers.isNumber(expectedText, 0, expectedText.length());
+        this.outputLimit = outputLimit(expectedText);
+        this.onReject = onReject;
+    }
+
+    /** Reads until EOF or until the output is rejected, whichever comes first. */
+    void consume(InputStream in) throws IOException {
+        byte[] buf = new byte[8192];
+        int n;
+        while ((n = in.read(buf)) != -1) {
+            truncated |= capture(captured, buf, n);
+            if (!streaming) {
+                if (!buffer(buf, n)) {
+                    rejected = true;
+                    onReject.run();
+                    return;
+                }
+                continue;
+            }
+            for (int i = 0; i < n; i++) {
+                if (!accept(buf[i])) {
+                    rejected = true;
+                    onReject.run();
+                    return;
+                }
+            }
+        }
+        finish();
+    }
+
+    boolean rejected() {
+        return rejected;
+    }
+
+    boolean outputLimitExceeded() {
+        return outputLimitExceeded;
+    }
+
+    boolean passed() {
+        // ✅ Other checkers run here, on the caller's thread, once the run is over,
+        //    on the same text the other backends give them
+        return streaming ? passed : checker.accepts(judgedText(whole.toByteArray()), expectedText);
+    }
+
+    /** Byte offset into stdout of the first difference, or -1 when it matched. */
+    long mismatchOffset() {
+        return mismatchOffset;
+    }
+
+    /** What the program printed, truncated the same way as the buffered path. */
+    String stdout() throws IOException {
+        return capturedText(captured.toByteArray(), truncated);
+    }
+
+    // ---------- STATE MACHINE ----------
+
+    private boolean buffer(byte[] buf, int n) {
+        long room = outputLimit - offset;
+        if (n > room) {
+            outputLimitExceeded = true;
+            mismatchOffset = outputLimit;
+            return false;
+        }
+        whole.write(buf, 0, n);
+        offset += n;
+        return true;
+    }
+
+    private boolean accept(byte b) {
+        long at = offset++;
+
+        if (at >= outputLimit) {
+            outputLimitExceeded = true;
+            mismatchOffset = at;
+            return false;
+        }
+
+        // ✅ CRLF and a lone CR count as LF, like readStream's lines for the buffered path
+        if (pendingCr >= 0) {
+            long cr = pendingCr;
+            pendingCr = -1;
+            if (b != '\n' && !step((byte) '\n', cr)) {
+                return false;
+            }
+        }
+        if (b == '\r') {
+            pendingCr = at;
+            return true;
+        }
+        return step(b, at);
+    }
+
+    private boolean step(byte b, long at) {
+        boolean blank = (b & 0xff) <= ' ';
+
+        switch (state) {
+            case LEADING -> {
+                if (blank) return true;
+                state = State.MATCHING;
+                tokenStart = at;
+                return step(b, at);
+            }
+            case MATCHING -> {
+                if (numeric) {
+                    // One token only; its value is compared at the end
+                    if (blank) {
+                        state = State.TRAILING;
+                    } else {
+                        token.write(b);
+                    }
+                    return true;
+                }
+                if (b != expected[pos]) {
+                    mismatchOffset = at;
+                    return false;
+                }
+                if (++pos == expected.length) {
+                    state = State.TRAILING;
+                }
+                return true;
+            }
+            default -> {
+                if (blank) return true;
+                // ❗ More output after the expected answer
+                mismatchOffset = at;
+                return false;
+            }
+        }
+    }
+
+    private void finish() {
+        if (!streaming) {
+            return;
+        }
+
+        if (pendingCr >= 0 && !step((byte) '\n', pendingCr)) {
+            return;
+        }
+
+        if (numeric) {
+            String value = token.toString(StandardCharsets.UTF_8);
+            passed = state != State.LEADING && Checkers.EXACT.accepts(value, expectedText);
+            if (!passed) {
+                mismatchOffset = tokenStart < 0 ? offset : tokenStart + firstDifference(token.toByteArray());
+            }
+            return;
+        }
+
+        passed = state == State.TRAILING;
+        if (!passed) {
+            // ❗ Output ended early
+            mismatchOffset = offset;
+        }
+    }
+
+    private int firstDifference(byte[] actual) {
+        int n = Math.min(actual.length, expected.length);
+        for (int i = 0; i < n; i++) {
+            if (actual[i] != expected[i]) return i;
+        }
+        return n;
+    }
+}
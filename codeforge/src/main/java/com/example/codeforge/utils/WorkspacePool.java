@@ -0,0 +1,131 @@
+package com.example.codeforge.utils;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.example.codeforge.utils.CodeExecutionUtil.deleteRecursively;
+
+/**
+ * Reusable working directories for the execution backends.
+ *
+ * Directories are created up front under {@code execution.workspace.root}
+ * (the system temp dir by default; point it at a tmpfs such as
+ * {@code /dev/shm} to keep runs off disk). A released directory is emptied on
+ * a background thread and handed out again, so the judging thread never
+ * creates or deletes directories itself. It is only emptied after the
+ * {@link ProcessReaper} has swept whatever the run left running.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WorkspacePool {
+
+    private final ProcessReaper reaper;
+
+    @Value("${execution.workspace.root:}")
+    private String root; // blank = java.io.tmpdir
+
+    @Value("${execution.workspace.idle:0}")
+    private int maxIdle; // 0 = two per core
+
+    private final BlockingQueue<Path> idle = new LinkedBlockingQueue<>();
+    private final AtomicLong names = new AtomicLong();
+    private final AtomicLong cleanupFailures = new AtomicLong();
+    private ExecutorService cleaner;
+    private Path base;
+
+    @PostConstruct
+    void start() throws IOException {
+        if (maxIdle <= 0) {
+            maxIdle = 2 * Runtime.getRuntime().availableProcessors();
+        }
+
+        Path parent = root.isBlank()
+                ? Path.of(System.getProperty("java.io.tmpdir"))
+                : Path.of(root);
+        base = Files.createTempDirectory(Files.createDirectories(parent), "codeforge_ws_");
+
+        cleaner = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "workspace-cleaner");
+            t.setDaemon(true);
+            return t;
+        });
+
+        for (int i = 0; i < maxIdle; i++) {
+            idle.add(create());
+        }
+        log.info("Workspace pool ready at {} ({} directories)", base, maxIdle);
+    }
+
+    /** An empty directory for one run; hand it back with {@link #release}. */
+    public Path acquire() throws IOException {
+        Path dir = idle.poll();
+        return dir != null ? dir : create();
+    }
+
+    /** Empties {@code dir} in the background and makes it available again. */
+    public void release(Path dir) {
+        if (dir == null) return;
+        // ❗ Not before the run's leftovers are dead, or they could write into the next run
+        reaper.afterSweeps(() -> {
+            try {
+                cleaner.execute(() -> recycle(dir));
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the whole base directory goes anyway
+            }
+        });
+    }
+
+    private void recycle(Path dir) {
+        try {
+            deleteRecursively(dir, true);
+        } catch (IOException e) {
+            // ❗ Still in use or not deletable: drop it rather than reuse it dirty
+            cleanupFailures.incrementAndGet();
+            log.warn("Could not reset workspace {}: {}", dir, e.getMessage());
+            return;
+        }
+
+        if (idle.size() < maxIdle) {
+            idle.offer(dir);
+        } else {
+            try {
+                Files.deleteIfExists(dir);
+            } catch (IOException e) {
+                log.debug("Could not remove surplus workspace {}", dir);
+            }
+        }
+    }
+
+    /** Workspaces that could not be emptied after a run (and were dropped). */
+    public long cleanupFailures() {
+        return cleanupFailures.get();
+    }
+
+    private Path create() throws IOException {
+        return Files.createDirectory(base.resolve("run_" + names.incrementAndGet()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (cleaner == null) {
+            return;
+        }
+        cleaner.shutdownNow();
+        try {
+            deleteRecursively(base, false);
+        } catch (IOException e) {
+            log.warn("Could not remove workspace root {}: {}", base, e.getMessage());
+        }
+    }
+}
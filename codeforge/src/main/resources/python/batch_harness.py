@@ -0,0 +1,177 @@
+# CodeForge batch harness.
+#
+# Runs every testcase of one submission inside a single interpreter.
+#   argv:   <solution.py> <timeout_seconds> <max_output_chars>
+#   stdin:  "<count>\n" then per case "<input_bytes> <stdout_limit>\n" + input
+#   stdout: per case, in order and as soon as it finishes,
+#           "<exit_code> <timed_out> <micros> <cpu_micros> <maxrss_kb> <stdout_bytes> <stderr_bytes>\n"
+#           + stdout + stderr
+#           timed_out is 2 when the harness exits after that case (see below)
+# stdout is kept up to <stdout_limit> + 1 characters, so Java can tell when the
+# limit was exceeded; stderr up to <max_output_chars> + 1.
+# The solution is compiled once and re-executed in a fresh namespace per case.
+# The time limit is CPU time (ITIMER_PROF); maxrss is the harness peak so far.
+# It is raised in the program as _TimeLimit; a program that swallows it (e.g.
+# with a bare except) is cut off from the signal handler itself a moment
+# later: the case is reported as timed out and the harness exits.
+
+import builtins
+import io
+import os
+import resource
+import signal
+import sys
+import time
+import traceback
+
+SOLUTION, TIMEOUT_SECONDS, MAX_OUTPUT_CHARS = sys.argv[1], float(sys.argv[2]), int(sys.argv[3])
+
+_requests = os.fdopen(os.dup(0), "rb")
+_replies = os.fdopen(os.dup(1), "wb")
+_devnull = os.open(os.devnull, os.O_RDWR)
+os.dup2(_devnull, 0)
+os.dup2(_devnull, 1)
+
+
+_GRACE_SECONDS = 0.1  # CPU time a program gets to unwind after _TimeLimit
+_timed_out = False
+_started = (0.0, 0.0)  # perf_counter, process_time when the current case started
+
+
+class _TimeLimit(BaseException):
+    pass
+
+
+def _on_cpu_limit(*_):
+    global _timed_out
+    if _timed_out:
+        # ❗ The program caught _TimeLimit and kept going: end the case from here
+        _write_reply(0, 2, _usage(), "", "")
+        os._exit(0)
+    _timed_out = True
+    signal.setitimer(signal.ITIMER_PROF, _GRACE_SECONDS)
+    raise _TimeLimit()
+
+
+signal.signal(signal.SIGPROF, _on_cpu_limit)
+
+
+class _CappedOutput(io.StringIO):
+    """Stops buffering once the Java side has seen enough."""
+
+    def __init__(self, limit):
+        super().__init__()
+        self._limit = limit
+
+    def write(self, s):
+        room = self._limit + 1 - self.tell()
+        if room > 0:
+            super().write(s[:room])
+        return len(s)
+
+
+def _peak_rss_kb():
+    # VmHWM starts over at exec; ru_maxrss can carry the JVM-side spawn's peak.
+    try:
+        with open("/proc/self/status") as f:
+            for line in f:
+                if line.startswith("VmHWM:"):
+                    return int(line.split()[1])
+    except OSError:
+        pass
+    return resource.getrusage(resource.RUSAGE_SELF).ru_maxrss
+
+
+def _usage():
+    elapsed, cpu = time.perf_counter() - _started[0], time.process_time() - _started[1]
+    return int(elapsed * 1_000_000), int(cpu * 1_000_000), _peak_rss_kb()
+
+
+def _write_reply(exit_code, timed_out, usage, out, err):
+    out_bytes = out.encode("utf-8", "replace")
+    err_bytes = err.encode("utf-8", "replace")
+    _replies.write(b"%d %d %d %d %d" % ((exit_code, timed_out) + usage))
+    _replies.write(b" %d %d\n" % (len(out_bytes), len(err_bytes)))
+    _replies.write(out_bytes)
+    _replies.write(err_bytes)
+    _replies.flush()
+
+
+def _exit_code(exc):
+    if exc.code is None:
+        return 0
+    if isinstance(exc.code, int):
+        return exc.code
+    print(exc.code, file=sys.stderr)
+    return 1
+
+
+def _run(program, case, baseline_modules, recursion_limit):
+    global _timed_out, _started
+    data, stdout_limit = case
+    stdout, stderr = _CappedOutput(stdout_limit), _CappedOutput(MAX_OUTPUT_CHARS)
+    sys.stdin = io.TextIOWrapper(io.BytesIO(data), encoding="utf-8")
+    sys.stdout, sys.stderr = stdout, stderr
+    sys.argv = ["solution.py"]
+    namespace = {"__name__": "__main__", "__file__": "solution.py", "__builtins__": builtins}
+    exit_code = 0
+
+    _timed_out = False
+    _started = (time.perf_counter(), time.process_time())
+    signal.setitimer(signal.ITIMER_PROF, TIMEOUT_SECONDS)
+    try:
+        exec(program, namespace)
+    except _TimeLimit:
+        pass
+    except SystemExit as e:
+        exit_code = _exit_code(e)
+    except BaseException as e:
+        # Skip this harness frame so the trace matches a cold run.
+        traceback.print_exception(type(e), e, e.__traceback__.tb_next)
+        exit_code = 1
+    finally:
+        signal.setitimer(signal.ITIMER_PROF, 0)
+        usage = _usage()
+        sys.stdin, sys.stdout, sys.stderr = sys.__stdin__, sys.__stdout__, sys.__stderr__
+        for name in set(sys.modules) - baseline_modules:
+            del sys.modules[name]
+        sys.setrecursionlimit(recursion_limit)
+
+    # Caught and swallowed or not, the limit was hit
+    timed_out = 1 if _timed_out else 0
+    return exit_code, timed_out, usage, stdout.getvalue(), stderr.getvalue()
+
+
+def _read_cases():
+    count = int(_requests.readline())
+    cases = []
+    for _ in range(count):
+        size, stdout_limit = map(int, _requests.readline().split())
+        cases.append((_requests.read(size), stdout_limit))
+    return cases
+
+
+def main():
+    cases = _read_cases()
+
+    with open(SOLUTION, encoding="utf-8") as f:
+        source = f.read()
+
+    try:
+        program = compile(source, "solution.py", "exec")
+    except SyntaxError:
+        # Report the compile error once per case, as a cold run would.
+        err = traceback.format_exc(limit=0).encode("utf-8", "replace")
+        for _ in cases:
+            _replies.write(b"1 0 0 0 0 0 %d\n" % len(err) + err)
+        _replies.flush()
+        return
+
+    baseline_modules = set(sys.modules)
+    recursion_limit = sys.getrecursionlimit()
+
+    for case in cases:
+        _write_reply(*_run(program, case, baseline_modules, recursion_limit))
+
+
+main()
@@ -0,0 +1,78 @@
+# CodeForge special-judge host.
+#
+# Started by SpecialJudge and reused for every testcase of every submission.
+# Runs the checker programs admins attach to problems; a checker defines
+#     def check(input, expected, output): ...   # truthy = accepted
+# Each checker is compiled and loaded once per host and kept by hash.
+#   request: "<hash> <code_bytes> <input_bytes> <expected_bytes> <output_bytes>\n"
+#            + code + input + expected + output
+#            (code_bytes=0: use the checker already loaded under hash)
+#   reply:   "<status> <message_bytes>\n" + message
+#            status: 1 accepted, 0 rejected, E checker failed, M not loaded (resend with code)
+
+import builtins
+import os
+import traceback
+
+_requests = os.fdopen(os.dup(0), "rb")
+_replies = os.fdopen(os.dup(1), "wb")
+_devnull = os.open(os.devnull, os.O_RDWR)
+os.dup2(_devnull, 0)
+os.dup2(_devnull, 1)
+
+_LOADED_MAX = 32
+_loaded = {}  # hash -> check(), most recent last
+
+
+def _load(digest, code):
+    namespace = {"__name__": "checker", "__builtins__": builtins}
+    exec(compile(code, "checker.py", "exec", dont_inherit=True), namespace)
+    check = namespace.get("check")
+    if not callable(check):
+        return None
+    _loaded[digest] = check
+    if len(_loaded) > _LOADED_MAX:
+        del _loaded[next(iter(_loaded))]
+    return check
+
+
+def _judge(digest, code, data, expected, output):
+    check = _loaded.pop(digest, None)
+    if check is None:
+        if not code:
+            return b"M", b""
+        try:
+            check = _load(digest, code)
+        except BaseException:
+            return b"E", traceback.format_exc(limit=-1).encode("utf-8", "replace")
+        if check is None:
+            return b"E", b"checker does not define check(input, expected, output)"
+    else:
+        _loaded[digest] = check  # move to most recent
+
+    try:
+        return (b"1" if check(data, expected, output) else b"0"), b""
+    except BaseException:
+        return b"E", traceback.format_exc(limit=-1).encode("utf-8", "replace")
+
+
+def main():
+    while True:
+        header = _requests.readline()
+        if not header:
+            return
+        digest, *lengths = header.split()
+        code_len, input_len, expected_len, output_len = map(int, lengths)
+        code = _requests.read(code_len).decode("utf-8")
+        data = _requests.read(input_len).decode("utf-8")
+        expected = _requests.read(expected_len).decode("utf-8")
+        output = _requests.read(output_len).decode("utf-8")
+
+        status, message = _judge(digest, code, data, expected, output)
+
+        _replies.write(b"%s %d\n" % (status, len(message)))
+        _replies.write(message)
+        _replies.flush()
+
+
+main()
@@ -0,0 +1,40 @@
+# CodeForge bytecode compiler.
+#
+# Turns a submission into a .pyc image once, so testcase runs can start from
+# solution.pyc instead of re-parsing the source every time.
+# Never executes the code it compiles.
+#   request: "<source_bytes>\n" + source
+#   reply:   "<ok> <pyc_bytes>\n" + pyc      (ok=0: does not compile, pyc empty)
+
+import importlib.util
+import marshal
+import os
+
+_requests = os.fdopen(os.dup(0), "rb")
+_replies = os.fdopen(os.dup(1), "wb")
+_devnull = os.open(os.devnull, os.O_RDWR)
+os.dup2(_devnull, 0)
+os.dup2(_devnull, 1)
+
+# magic, flags=0, mtime/size unused: the image is run directly, never checked against a source
+_HEADER = importlib.util.MAGIC_NUMBER + b"\0" * 12
+
+
+def main():
+    while True:
+        header = _requests.readline()
+        if not header:
+            return
+        source = _requests.read(int(header))
+        try:
+            code = compile(source, "solution.py", "exec", dont_inherit=True)
+            ok, pyc = 1, _HEADER + marshal.dumps(code)
+        except Exception:
+            # SyntaxError and friends: let the real run report it like a cold run would.
+            ok, pyc = 0, b""
+        _replies.write(b"%d %d\n" % (ok, len(pyc)))
+        _replies.write(pyc)
+        _replies.flush()
+
+
+main()
@@ -0,0 +1,180 @@
+# CodeForge warm Python worker.
+#
+# Started once by PythonWorkerPool and reused for many runs. Each request is
+#   "<code_bytes> <input_bytes> <stdout_limit>\n" + code + input
+# and each reply is
+#   "<exit_code> <stdout_bytes> <stderr_bytes>\n" + stdout + stderr
+# stdout is kept up to <stdout_limit> + 1 characters, so Java can tell when the
+# limit was exceeded; stderr up to <max_output_chars> (argv) + 1.
+# The real stdin/stdout fds are moved to private descriptors so user code
+# cannot corrupt the protocol by writing to fd 1 directly.
+#
+# Every run happens in a child forked from this process: it shares the warm
+# interpreter and preloaded modules, but anything the submission patches
+# (builtins, math, ...) or starts (threads, processes) dies with the child.
+# The child closes the protocol descriptors before running user code, so a
+# submission can neither read the next request nor forge a reply.
+
+import builtins
+import io
+import os
+import signal
+import struct
+import sys
+import traceback
+
+# Warm up the modules submissions typically import.
+import bisect, collections, functools, heapq, itertools, math, re, string  # noqa: E401,F401
+
+MAX_OUTPUT_CHARS = int(sys.argv[1]) if len(sys.argv) > 1 else 10000
+
+_requests = os.fdopen(os.dup(0), "rb")
+_replies = os.fdopen(os.dup(1), "wb")
+_devnull = os.open(os.devnull, os.O_RDWR)
+os.dup2(_devnull, 0)
+os.dup2(_devnull, 1)
+
+# Testcases of one submission arrive back to back with the same source:
+# compile it once per worker instead of once per run.
+_COMPILED_MAX = 8
+_RESULT_HEADER = struct.Struct("!iii")  # child -> worker: exit code, stdout bytes, stderr bytes
+_compiled = {}
+
+
+def _remember(code, program):
+    _compiled.pop(code, None)
+    _compiled[code] = program  # most recent last
+    if len(_compiled) > _COMPILED_MAX:
+        del _compiled[next(iter(_compiled))]
+
+
+class _CappedOutput(io.StringIO):
+    """Stops buffering once the Java side has seen enough."""
+
+    def __init__(self, limit):
+        super().__init__()
+        self._limit = limit
+
+    def write(self, s):
+        room = self._limit + 1 - self.tell()
+        if room > 0:
+            super().write(s[:room])
+        return len(s)
+
+
+def _exit_code(exc):
+    if exc.code is None:
+        return 0
+    if isinstance(exc.code, int):
+        return exc.code
+    print(exc.code, file=sys.stderr)
+    return 1
+
+
+def _compile(code):
+    # In the parent, so the cache outlives the child; errors are reported by the child.
+    program = _compiled.get(code)
+    if program is None:
+        try:
+            program = compile(code, "solution.py", "exec")
+        except BaseException:
+            return None
+    _remember(code, program)
+    return program
+
+
+def _execute(code, program, data, stdout_limit):
+    stdout, stderr = _CappedOutput(stdout_limit), _CappedOutput(MAX_OUTPUT_CHARS)
+    sys.stdin = io.TextIOWrapper(io.BytesIO(data), encoding="utf-8")
+    sys.stdout, sys.stderr = stdout, stderr
+    namespace = {"__name__": "__main__", "__builtins__": builtins}
+    exit_code = 0
+    try:
+        if program is None:
+            program = compile(code, "solution.py", "exec")
+        exec(program, namespace)
+    except SystemExit as e:
+        exit_code = _exit_code(e)
+    except BaseException as e:
+        # Skip this harness frame so the trace matches a cold run.
+        traceback.print_exception(type(e), e, e.__traceback__.tb_next)
+        exit_code = 1
+    return exit_code, stdout.getvalue(), stderr.getvalue()
+
+
+def _child(code, program, data, stdout_limit, result_fd):
+    global _requests, _replies
+    os.setpgid(0, 0)  # leftovers are killed with the group once the run is over
+    os.close(_requests.fileno())
+    os.close(_replies.fileno())
+    _requests = _replies = None
+
+    exit_code, out, err = _execute(code, program, data, stdout_limit)
+
+    out_bytes = out.encode("utf-8", "replace")
+    err_bytes = err.encode("utf-8", "replace")
+    with os.fdopen(result_fd, "wb") as result:
+        result.write(_RESULT_HEADER.pack(exit_code, len(out_bytes), len(err_bytes)))
+        result.write(out_bytes)
+        result.write(err_bytes)
+    os._exit(0)
+
+
+def _read_reply(result):
+    # Exact lengths, not EOF: processes the run left behind may still hold the pipe
+    header = result.read(_RESULT_HEADER.size)
+    if len(header) < _RESULT_HEADER.size:
+        return None
+    exit_code, out_len, err_len = _RESULT_HEADER.unpack(header)
+    out, err = result.read(out_len), result.read(err_len)
+    if len(out) < out_len or len(err) < err_len:
+        return None
+    return exit_code, out, err
+
+
+def _run(code, data, stdout_limit):
+    program = _compile(code)
+    read_fd, write_fd = os.pipe()
+    pid = os.fork()
+    if pid == 0:
+        os.close(read_fd)
+        try:
+            _child(code, program, data, stdout_limit, write_fd)
+        finally:
+            os._exit(1)
+
+    os.close(write_fd)
+    with os.fdopen(read_fd, "rb") as result:
+        reply = _read_reply(result)
+    try:
+        os.killpg(pid, signal.SIGKILL)  # threads and processes the run left behind
+    except OSError:
+        pass
+    _, status = os.waitpid(pid, 0)
+    if reply is not None:
+        return reply
+
+    # Died before replying (signal, out of memory)
+    if os.WIFSIGNALED(status):
+        return 128 + os.WTERMSIG(status), b"", b""
+    return os.WEXITSTATUS(status) or 1, b"", b""
+
+
+def main():
+    while True:
+        header = _requests.readline()
+        if not header:
+            return
+        code_len, input_len, stdout_limit = map(int, header.split())
+        code = _requests.read(code_len).decode("utf-8")
+        data = _requests.read(input_len)
+
+        exit_code, out_bytes, err_bytes = _run(code, data, stdout_limit)
+
+        _replies.write(b"%d %d %d\n" % (exit_code, len(out_bytes), len(err_bytes)))
+        _replies.write(out_bytes)
+        _replies.write(err_bytes)
+        _replies.flush()
+
+
+main()
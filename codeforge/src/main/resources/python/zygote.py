@@ -0,0 +1,176 @@
+# CodeForge zygote fork-server.
+#
+# One long-lived interpreter that pre-imports common stdlib modules and forks
+# a fresh child per run, so every run starts from an already initialised,
+# copy-on-write image. Protocol (one line each):
+#   argv:  <address_space_bytes> <cpu_soft_seconds> <cpu_hard_seconds>
+#   Java   -> zygote  "RUN <id> <max_processes> <max_file_bytes> <run_tag> <workdir>"
+#   zygote -> Java    "PID <id> <pid>"      right after fork
+#   zygote -> Java    "EXIT <id> <code> <cpu_micros> <maxrss_kb>"  when the child has been reaped
+# The child reads <workdir>/input.txt and writes stdout.txt / stderr.txt.
+# It runs <workdir>/solution.pyc when present, else compiles solution.py.
+# Each child gets its own session/process group and the rlimits from argv and
+# its RUN line (max_file_bytes grows with the testcase's expected output).
+# Java tracks the child by the PID line; once it is reaped its whole process
+# group is killed here, and CODEFORGE_RUN=<run_tag> is passed on to whatever
+# it execs so Java can find processes that left the group.
+# Writes past <max_file_bytes> (EFBIG) exit with 128 + SIGXFSZ, which Java
+# reports as an output-limit verdict.
+
+import builtins
+import errno
+import marshal
+import os
+import select
+import signal
+import sys
+import traceback
+
+# Warm up the modules submissions typically import.
+import bisect, collections, functools, heapq, itertools, math, re, string  # noqa: E401,F401
+import array, copy, decimal, fractions, operator, random, statistics  # noqa: E401,F401
+
+ADDRESS_SPACE_BYTES, CPU_SOFT_SECONDS, CPU_HARD_SECONDS = map(int, sys.argv[1:4])
+
+_requests = os.dup(0)
+_replies = os.dup(1)
+_devnull = os.open(os.devnull, os.O_RDWR)
+os.dup2(_devnull, 0)
+os.dup2(_devnull, 1)
+
+_wakeup_r, _wakeup_w = os.pipe()
+os.set_blocking(_wakeup_w, False)
+signal.set_wakeup_fd(_wakeup_w)
+signal.signal(signal.SIGCHLD, lambda *_: None)
+
+_children = {}  # pid -> run id
+_OUTPUT_LIMIT_EXIT = 128 + signal.SIGXFSZ
+
+
+def _reply(line):
+    os.write(_replies, (line + "\n").encode("ascii"))
+
+
+def _exit_code(exc):
+    if exc.code is None:
+        return 0
+    if isinstance(exc.code, int):
+        return exc.code
+    print(exc.code, file=sys.stderr)
+    return 1
+
+
+def _output_limit(exc):
+    return isinstance(exc, OSError) and exc.errno == errno.EFBIG
+
+
+def _child(max_processes, max_file_bytes, run_tag, workdir):
+    # Undo the server plumbing before touching user code.
+    signal.set_wakeup_fd(-1)
+    signal.signal(signal.SIGCHLD, signal.SIG_DFL)
+    for fd in (_requests, _replies, _wakeup_r, _wakeup_w, _devnull):
+        os.close(fd)
+
+    os.setsid()
+    os.environ["CODEFORGE_RUN"] = run_tag
+    import resource
+    resource.setrlimit(resource.RLIMIT_AS, (ADDRESS_SPACE_BYTES, ADDRESS_SPACE_BYTES))
+    resource.setrlimit(resource.RLIMIT_FSIZE, (max_file_bytes, max_file_bytes))
+    resource.setrlimit(resource.RLIMIT_CPU, (CPU_SOFT_SECONDS, CPU_HARD_SECONDS))
+    resource.setrlimit(resource.RLIMIT_NPROC, (max_processes, max_processes))
+    signal.signal(signal.SIGXFSZ, signal.SIG_IGN)
+
+    os.chdir(workdir)
+    flags = os.O_WRONLY | os.O_CREAT | os.O_TRUNC
+    os.dup2(os.open("input.txt", os.O_RDONLY), 0)
+    os.dup2(os.open("stdout.txt", flags, 0o600), 1)
+    os.dup2(os.open("stderr.txt", flags, 0o600), 2)
+    sys.argv = ["solution.py"]
+
+    namespace = {"__name__": "__main__", "__file__": "solution.py", "__builtins__": builtins}
+    exit_code = 0
+    try:
+        exec(_load_program(), namespace)
+    except SystemExit as e:
+        exit_code = _exit_code(e)
+    except BaseException as e:
+        if _output_limit(e):
+            os._exit(_OUTPUT_LIMIT_EXIT)
+        # Skip this harness frame so the trace matches a cold run.
+        traceback.print_exception(type(e), e, e.__traceback__.tb_next)
+        exit_code = 1
+    try:
+        sys.stdout.flush()
+        sys.stderr.flush()
+    except OSError as e:
+        exit_code = _OUTPUT_LIMIT_EXIT if _output_limit(e) else exit_code or 1
+    os._exit(exit_code)
+
+
+def _load_program():
+    if os.path.exists("solution.pyc"):
+        with open("solution.pyc", "rb") as f:
+            return marshal.loads(f.read()[16:])  # skip the .pyc header
+    with open("solution.py", encoding="utf-8") as f:
+        return compile(f.read(), "solution.py", "exec")
+
+
+def _fork(run_id, max_processes, max_file_bytes, run_tag, workdir):
+    pid = os.fork()
+    if pid == 0:
+        try:
+            _child(max_processes, max_file_bytes, run_tag, workdir)
+        finally:
+            os._exit(1)
+    _children[pid] = run_id
+    _reply("PID %s %d" % (run_id, pid))
+
+
+def _reap():
+    while _children:
+        try:
+            pid, status, usage = os.wait4(-1, os.WNOHANG)
+        except ChildProcessError:
+            return
+        if pid == 0:
+            return
+        run_id = _children.pop(pid, None)
+        if run_id is not None:
+            cpu_micros = int((usage.ru_utime + usage.ru_stime) * 1_000_000)
+            code = os.waitstatus_to_exitcode(status)
+            if code < 0:
+                code = 128 - code  # killed by a signal: same convention as a JVM-spawned process
+            _reply("EXIT %s %d %d %d" % (run_id, code, cpu_micros, usage.ru_maxrss))
+            # The child led its own group: take down whatever it left running
+            try:
+                os.killpg(pid, signal.SIGKILL)
+            except OSError:
+                pass  # group already empty
+
+
+def main():
+    pending = b""
+    while True:
+        try:
+            readable, _, _ = select.select([_requests, _wakeup_r], [], [])
+        except InterruptedError:
+            continue
+
+        if _wakeup_r in readable:
+            os.read(_wakeup_r, 4096)
+            _reap()
+
+        if _requests in readable:
+            chunk = os.read(_requests, 65536)
+            if not chunk:
+                return
+            pending += chunk
+            while b"\n" in pending:
+                line, pending = pending.split(b"\n", 1)
+                command, run_id, max_processes, max_file_bytes, run_tag, workdir = \
+                    line.decode("utf-8").split(" ", 5)
+                if command == "RUN":
+                    _fork(run_id, int(max_processes), int(max_file_bytes), run_tag, workdir)
+
+
+main()
@@ -25,6 +25,9 @@ CREATE TABLE IF NOT EXISTS problems (
     constraints LONGTEXT,
     difficulty VARCHAR(20) NOT NULL,
     tags VARCHAR(500),
+    judging_policy VARCHAR(20),
+    checker VARCHAR(20),
+    checker_code LONGTEXT,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     is_active BOOLEAN DEFAULT TRUE,
@@ -53,6 +56,7 @@ CREATE TABLE IF NOT EXISTS submissions (
     problem_id BIGINT NOT NULL,
     code LONGTEXT NOT NULL,
     status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    judging_policy VARCHAR(20),
     score INT,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
@@ -69,8 +73,19 @@ CREATE TABLE IF NOT EXISTS submission_results (
     submission_id BIGINT NOT NULL,
     testcase_id BIGINT NOT NULL,
     passed BOOLEAN NOT NULL,
+    verdict VARCHAR(20),
     output LONGTEXT,
+    error LONGTEXT,
     execution_time INT,
+    mismatch_offset BIGINT,
+    cpu_time INT,
+    peak_memory_kb INT,
+    setup_micros INT,
+    spawn_micros INT,
+    run_micros INT,
+    capture_micros INT,
+    judge_micros INT,
+    cleanup_micros INT,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (submission_id) REFERENCES submissions(id) ON DELETE CASCADE,
     FOREIGN KEY (testcase_id) REFERENCES testcases(id) ON DELETE CASCADE,
@@ -78,6 +93,16 @@ CREATE TABLE IF NOT EXISTS submission_results (
     INDEX idx_testcase_id (testcase_id)
 );
 
+-- Judge jobs (execution.judge.queue=DATABASE): one row per submission until its results are stored
+CREATE TABLE IF NOT EXISTS judge_jobs (
+    submission_id BIGINT PRIMARY KEY,
+    claimed_by VARCHAR(100),
+    heartbeat_at TIMESTAMP NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (submission_id) REFERENCES submissions(id) ON DELETE CASCADE
+);
+
 -- Behavioral Questions table
 CREATE TABLE IF NOT EXISTS behavioral_questions (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
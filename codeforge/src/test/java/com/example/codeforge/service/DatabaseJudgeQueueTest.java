@@ -0,0 +1,202 @@
+package com.example.codeforge.service;
+
+import com.example.codeforge.entity.JudgeJob;
+import com.example.codeforge.repository.JudgeJobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:judge_jobs;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the queue runs its own transactions
+class DatabaseJudgeQueueTest {
+
+    private static final long LEASE_SECONDS = 30;
+
+    @Autowired
+    private JudgeJobRepository jobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        jobRepository.deleteAll();
+    }
+
+    // ---------- CLAIM ----------
+
+    @Test
+    void claimTakesTheOldestQueuedJobOnce() {
+        enqueue(2L);
+        enqueue(1L);
+        DatabaseJudgeQueue node = node("a");
+
+        assertThat(claim(node)).isEqualTo(1L);
+        assertThat(claim(node)).isEqualTo(2L);
+        assertThat(claim(node)).isNull();
+
+        JudgeJob job = jobRepository.findById(1L).orElseThrow();
+        assertThat(job.getClaimedBy()).isEqualTo("a");
+        assertThat(job.getAttempts()).isEqualTo(1);
+        assertThat(job.getHeartbeatAt()).isNotNull();
+        assertThat(node.depth()).isZero();
+    }
+
+    @Test
+    void freshClaimsAreNotTakenByOtherNodes() {
+        enqueue(1L);
+        assertThat(claim(node("a"))).isEqualTo(1L);
+
+        assertThat(claim(node("b"))).isNull();
+    }
+
+    // ---------- LEASE ----------
+
+    @Test
+    void staleClaimsAreReclaimed() {
+        enqueue(1L);
+        assertThat(claim(node("a"))).isEqualTo(1L);
+        expireLease(1L);
+
+        assertThat(claim(node("b"))).isEqualTo(1L);
+
+        JudgeJob job = jobRepository.findById(1L).orElseThrow();
+        assertThat(job.getClaimedBy()).isEqualTo("b");
+        assertThat(job.getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    void heartbeatKeepsTheLease() {
+        enqueue(1L);
+        assertThat(claim(node("a"))).isEqualTo(1L);
+        expireLease(1L);
+
+        transactionTemplate.executeWithoutResult(status -> jobRepository.heartbeat("a"));
+
+        assertThat(claim(node("b"))).isNull();
+    }
+
+    @Test
+    void exhaustedJobsAreRemovedAndFailed() {
+        enqueue(1L);
+        jdbcTemplate.update("UPDATE judge_jobs SET attempts = 3 WHERE submission_id = 1");
+        JudgeService judgeService = mock(JudgeService.class);
+        DatabaseJudgeQueue node = node("a", judgeService);
+
+        Object claim = transactionTemplate.execute(status -> ReflectionTestUtils.invokeMethod(node, "claimNext"));
+
+        assertThat(claim).hasFieldOrPropertyWithValue("exhausted", true);
+        assertThat(jobRepository.existsById(1L)).isFalse();
+    }
+
+    // ---------- RELEASE ----------
+
+    @Test
+    void releaseOnlyDeletesOwnJobs() {
+        enqueue(1L);
+        DatabaseJudgeQueue a = node("a");
+        assertThat(claim(a)).isEqualTo(1L);
+        expireLease(1L);
+        assertThat(claim(node("b"))).isEqualTo(1L);
+
+        ReflectionTestUtils.invokeMethod(a, "release", 1L);
+        assertThat(jobRepository.existsById(1L)).isTrue();
+
+        ReflectionTestUtils.invokeMethod(node("b"), "release", 1L);
+        assertThat(jobRepository.existsById(1L)).isFalse();
+    }
+
+    @Test
+    void failLeavesReclaimedJobsToTheirNewNode() {
+        enqueue(1L);
+        JudgeService judgeService = mock(JudgeService.class);
+        DatabaseJudgeQueue a = node("a", judgeService);
+        assertThat(claim(a)).isEqualTo(1L);
+        expireLease(1L);
+        assertThat(claim(node("b"))).isEqualTo(1L);
+
+        ReflectionTestUtils.invokeMethod(a, "fail", 1L);
+
+        verify(judgeService, never()).markError(anyLong(), any());
+        assertThat(jobRepository.findById(1L).orElseThrow().getClaimedBy()).isEqualTo("b");
+    }
+
+    @Test
+    void failMarksOwnJobsAndReleasesThem() {
+        enqueue(1L);
+        JudgeService judgeService = mock(JudgeService.class);
+        DatabaseJudgeQueue a = node("a", judgeService);
+        assertThat(claim(a)).isEqualTo(1L);
+
+        ReflectionTestUtils.invokeMethod(a, "fail", 1L);
+
+        verify(judgeService).markError(1L, "Judge failure");
+        assertThat(jobRepository.existsById(1L)).isFalse();
+    }
+
+    // ---------- HELPERS ----------
+
+    private DatabaseJudgeQueue node(String nodeId) {
+        return node(nodeId, mock(JudgeService.class));
+    }
+
+    // Enqueue-only settings: no worker threads, claims are driven by the test
+    private DatabaseJudgeQueue node(String nodeId, JudgeService judgeService) {
+        DatabaseJudgeQueue queue = new DatabaseJudgeQueue(
+                jobRepository, judgeService, transactionTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(queue, "worker", false);
+        ReflectionTestUtils.setField(queue, "nodeId", nodeId);
+        ReflectionTestUtils.setField(queue, "leaseSeconds", LEASE_SECONDS);
+        ReflectionTestUtils.setField(queue, "maxAttempts", 3);
+        ReflectionTestUtils.invokeMethod(queue, "start");
+        return queue;
+    }
+
+    private void enqueue(Long submissionId) {
+        transactionTemplate.executeWithoutResult(status -> node("api").enqueue(submissionId));
+    }
+
+    private Long claim(DatabaseJudgeQueue node) {
+        Object claim = transactionTemplate.execute(status -> ReflectionTestUtils.invokeMethod(node, "claimNext"));
+        return claim == null ? null : (Long) ReflectionTestUtils.getField(claim, "submissionId");
+    }
+
+    // As if the claiming node had stopped heartbeating a lease ago
+    private void expireLease(Long submissionId) {
+        jdbcTemplate.update("UPDATE judge_jobs SET heartbeat_at = ? WHERE submission_id = ?",
+                LocalDateTime.now().minusSeconds(LEASE_SECONDS * 10), submissionId);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.codeforge.service;
+
+import com.example.codeforge.dto.testcase.TestcaseRequest;
+import com.example.codeforge.entity.Problem;
+import com.example.codeforge.entity.Testcase;
+import com.example.codeforge.repository.ProblemRepository;
+import com.example.codeforge.repository.TestcaseRepository;
+import com.example.codeforge.utils.CodeExecutionUtil.ExecutionResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExecutionResultCacheTest {
+
+    private static final String CHECKER = "EXACT";
+    private static final ExecutionResult PASSED = new ExecutionResult("3", "", true, "PASSED");
+
+    private ExecutionResultCache cache;
+    private String code;
+
+    @BeforeEach
+    void setUp() {
+        cache = cache(100);
+        code = cache.codeHash("print(sum(map(int, input().split())))");
+    }
+
+    // ---------- LOOKUPS ----------
+
+    @Test
+    void returnsStoredVerdictForSameCodeAndTestcase() {
+        Testcase tc = testcase(1L, "1 2", "3");
+        cache.put(code, tc, CHECKER, PASSED);
+
+        assertThat(cache.get(code, testcase(1L, "1 2", "3"), CHECKER)).isSameAs(PASSED);
+        assertThat(cache.get(cache.codeHash("print(3)"), tc, CHECKER)).isNull();
+        assertThat(cache.get(code, tc, "TOKENS")).isNull();
+    }
+
+    @Test
+    void codeHashIgnoresLineEndingsAndTrailingWhitespace() {
+        assertThat(cache.codeHash("a = 1\r\nprint(a)\r\n\n")).isEqualTo(cache.codeHash("a = 1\nprint(a)"));
+        assertThat(cache.codeHash("print(1) ")).isEqualTo(cache.codeHash("print(1)"));
+        assertThat(cache.codeHash(" print(1)")).isNotEqualTo(cache.codeHash("print(1)"));
+    }
+
+    @Test
+    void onlyOutputVerdictsAreStored() {
+        Testcase tc = testcase(1L, "1 2", "3");
+        cache.put(code, tc, CHECKER, new ExecutionResult("", "", false, "TIMEOUT"));
+        cache.put(code, tc, CHECKER, new ExecutionResult("", "Traceback", false, "ERROR"));
+
+        assertThat(cache.get(code, tc, CHECKER)).isNull();
+    }
+
+    @Test
+    void disabledCacheStoresNothing() {
+        ExecutionResultCache disabled = cache(0);
+        Testcase tc = testcase(1L, "1 2", "3");
+        disabled.put(code, tc, CHECKER, PASSED);
+
+        assertThat(disabled.get(code, tc, CHECKER)).isNull();
+        assertThat(disabled.stats().getSize()).isZero();
+    }
+
+    // ---------- INVALIDATION ----------
+
+    @Test
+    void editedTestcaseMissesEvenBeforeInvalidation() {
+        cache.put(code, testcase(1L, "1 2", "3"), CHECKER, PASSED);
+
+        assertThat(cache.get(code, testcase(1L, "1 2", "4"), CHECKER)).isNull();
+        assertThat(cache.get(code, testcase(1L, "2 2", "3"), CHECKER)).isNull();
+    }
+
+    @Test
+    void invalidationDropsOnlyThatTestcase() {
+        Testcase first = testcase(1L, "1 2", "3");
+        Testcase second = testcase(2L, "2 2", "4");
+        cache.put(code, first, CHECKER, PASSED);
+        cache.put(cache.codeHash("print(3)"), first, CHECKER, PASSED);
+        cache.put(code, second, CHECKER, PASSED);
+
+        cache.invalidateTestcase(1L);
+
+        assertThat(cache.get(code, first, CHECKER)).isNull();
+        assertThat(cache.get(cache.codeHash("print(3)"), first, CHECKER)).isNull();
+        assertThat(cache.get(code, second, CHECKER)).isSameAs(PASSED);
+        assertThat(cache.stats().getSize()).isEqualTo(1);
+    }
+
+    @Test
+    void updatingATestcaseInvalidatesIt() {
+        Testcase tc = testcase(1L, "1 2", "3");
+        cache.put(code, tc, CHECKER, PASSED);
+        TestcaseRepository testcases = testcaseRepository(tc);
+
+        TestcaseRequest request = new TestcaseRequest();
+        request.setInput("1 2");
+        request.setExpectedOutput("3");
+        new TestcaseService(testcases, mock(ProblemRepository.class), cache).updateTestcase(1L, request);
+
+        // Same content after the edit, so only invalidation explains the miss
+        assertThat(cache.get(code, testcase(1L, "1 2", "3"), CHECKER)).isNull();
+    }
+
+    @Test
+    void deletingATestcaseInvalidatesIt() {
+        Testcase tc = testcase(1L, "1 2", "3");
+        cache.put(code, tc, CHECKER, PASSED);
+
+        new TestcaseService(testcaseRepository(tc), mock(ProblemRepository.class), cache).deleteTestcase(1L);
+
+        assertThat(cache.get(code, tc, CHECKER)).isNull();
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreEvicted() {
+        ExecutionResultCache small = cache(2);
+        Testcase a = testcase(1L, "a", "a");
+        Testcase b = testcase(2L, "b", "b");
+        Testcase c = testcase(3L, "c", "c");
+        small.put(code, a, CHECKER, PASSED);
+        small.put(code, b, CHECKER, PASSED);
+        small.get(code, a, CHECKER);
+
+        small.put(code, c, CHECKER, PASSED);
+
+        assertThat(small.get(code, a, CHECKER)).isNotNull();
+        assertThat(small.get(code, b, CHECKER)).isNull();
+        assertThat(small.get(code, c, CHECKER)).isNotNull();
+    }
+
+    // ---------- HELPERS ----------
+
+    private static ExecutionResultCache cache(int maxEntries) {
+        ExecutionResultCache cache = new ExecutionResultCache();
+        ReflectionTestUtils.setField(cache, "maxEntries", maxEntries);
+        cache.init();
+        return cache;
+    }
+
+    private static Testcase testcase(Long id, String input, String expectedOutput) {
+        return Testcase.builder()
+                .id(id)
+                .problem(Problem.builder().id(1L).build())
+                .input(input)
+                .expectedOutput(expectedOutput)
+                .build();
+    }
+
+    private static TestcaseRepository testcaseRepository(Testcase tc) {
+        TestcaseRepository repository = mock(TestcaseRepository.class);
+        when(repository.findById(tc.getId())).thenReturn(Optional.of(tc));
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        return repository;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.codeforge.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.BlockingQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class InMemoryJudgeQueueTest {
+
+    private InMemoryJudgeQueue queue;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        queue = new InMemoryJudgeQueue(mock(JudgeService.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(queue, "workerCount", 1);
+        ReflectionTestUtils.setField(queue, "capacity", 2);
+        ReflectionTestUtils.invokeMethod(queue, "start");
+        ReflectionTestUtils.invokeMethod(queue, "stop"); // no worker takes anything off the queue
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // ---------- CAPACITY ----------
+
+    @Test
+    void fullQueueRejectsInsteadOfDropping() {
+        queue.enqueue(1L);
+        queue.enqueue(2L);
+
+        assertThat(queue.hasCapacity()).isFalse();
+        assertThatThrownBy(() -> queue.enqueue(3L)).isInstanceOf(JudgeQueueFullException.class);
+        assertThat(queued()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void uncommittedSubmissionsHoldTheirSlot() {
+        TransactionSynchronizationManager.initSynchronization();
+        queue.enqueue(1L);
+        queue.enqueue(2L);
+
+        // Both passed the capacity check before either committed
+        assertThatThrownBy(() -> queue.enqueue(3L)).isInstanceOf(JudgeQueueFullException.class);
+        assertThat(queued()).isEmpty();
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(queued()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void rolledBackSubmissionsGiveTheirSlotBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        queue.enqueue(1L);
+        queue.enqueue(2L);
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(queued()).isEmpty();
+        assertThat(queue.hasCapacity()).isTrue();
+        queue.enqueue(3L);
+        queue.enqueue(4L);
+        assertThat(queued()).containsExactly(3L, 4L);
+    }
+
+    // ---------- HTTP ----------
+
+    @Test
+    void fullQueueIsAnswered503WithRetryAfter() throws Exception {
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new FullQueueController()).build();
+
+        mvc.perform(post("/submit"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "5"));
+    }
+
+    // ---------- HELPERS ----------
+
+    @RestController
+    static class FullQueueController {
+
+        @PostMapping("/submit")
+        void submit() {
+            throw new JudgeQueueFullException();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private BlockingQueue<Long> queued() {
+        return (BlockingQueue<Long>) ReflectionTestUtils.getField(queue, "queue");
+    }
+
+    private static void complete(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCompletion(status));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.codeforge.utils;
+
+import com.example.codeforge.entity.CheckerType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CheckersTest {
+
+    // ---------- EXACT ----------
+
+    @Test
+    void exactIgnoresSurroundingWhitespaceAndCrlf() {
+        assertThat(Checkers.EXACT.accepts("  1 2\r\n3\r\n\n", "1 2\n3")).isTrue();
+        assertThat(Checkers.EXACT.accepts("1 2\n3", "1 2\r\n3\r\n")).isTrue();
+    }
+
+    @Test
+    void exactRejectsInnerWhitespaceDifferences() {
+        assertThat(Checkers.EXACT.accepts("1  2", "1 2")).isFalse();
+        assertThat(Checkers.EXACT.accepts("1 \n2", "1\n2")).isFalse();
+        assertThat(Checkers.EXACT.accepts("12", "1")).isFalse();
+        assertThat(Checkers.EXACT.accepts("", "1")).isFalse();
+    }
+
+    @Test
+    void exactComparesASingleNumberWithTolerance() {
+        assertThat(Checkers.EXACT.accepts("2.000001", "2")).isTrue();
+        assertThat(Checkers.EXACT.accepts("2.1", "2")).isFalse();
+        assertThat(Checkers.EXACT.accepts("1e3", "1000")).isTrue();
+    }
+
+    // ---------- TOKENS ----------
+
+    @Test
+    void tokensIgnoreAnyWhitespace() {
+        assertThat(Checkers.TOKENS.accepts("1   2\n\t3 ", "1 2 3")).isTrue();
+        assertThat(Checkers.TOKENS.accepts("1 2", "1 2 3")).isFalse();
+        assertThat(Checkers.TOKENS.accepts("1.0 2", "1 2")).isFalse();
+    }
+
+    @Test
+    void floatTokensUseRelativeTolerance() {
+        assertThat(Checkers.FLOAT_TOKENS.accepts("1.0000001 1000000.1", "1 1000000")).isTrue();
+        assertThat(Checkers.FLOAT_TOKENS.accepts("1.001", "1")).isFalse();
+        assertThat(Checkers.FLOAT_TOKENS.accepts("abc", "1")).isFalse();
+    }
+
+    // ---------- UNORDERED_LINES ----------
+
+    @Test
+    void unorderedLinesIgnoreOrderAndTrailingWhitespace() {
+        assertThat(Checkers.UNORDERED_LINES.accepts("b \r\na\r\nc\n", "a\nb\nc")).isTrue();
+        assertThat(Checkers.UNORDERED_LINES.accepts("", "  ")).isTrue();
+    }
+
+    @Test
+    void unorderedLinesCompareAsMultisets() {
+        assertThat(Checkers.UNORDERED_LINES.accepts("a\na\nb", "a\nb\nb")).isFalse();
+        assertThat(Checkers.UNORDERED_LINES.accepts("a\nb", "a\nb\nb")).isFalse();
+        assertThat(Checkers.UNORDERED_LINES.accepts("a b\nc", "a\nb c")).isFalse();
+        assertThat(Checkers.UNORDERED_LINES.accepts("a\n b", "a\nb")).isFalse();
+    }
+
+    @Test
+    void unorderedLinesDoNotTrustEqualHashes() {
+        // Two different lines with the same 64-bit FNV-1a hash
+        String line = COLLIDING_LINE_A;
+        String other = COLLIDING_LINE_B;
+        assertThat(line).isNotEqualTo(other);
+        assertThat(fnv1a(line)).isEqualTo(fnv1a(other));
+
+        assertThat(Checkers.UNORDERED_LINES.accepts(line + "\nx", "x\n" + other)).isFalse();
+        assertThat(Checkers.UNORDERED_LINES.accepts(line + "\n" + other, other + "\n" + line)).isTrue();
+        assertThat(Checkers.UNORDERED_LINES.accepts(line + "\n" + line, line + "\n" + other)).isFalse();
+    }
+
+    // ---------- CASE_INSENSITIVE ----------
+
+    @Test
+    void caseInsensitiveOnlyIgnoresCase() {
+        assertThat(Checkers.CASE_INSENSITIVE.accepts("YES\r\n", "yes")).isTrue();
+        assertThat(Checkers.CASE_INSENSITIVE.accepts("Yes ", "yes")).isTrue();
+        assertThat(Checkers.CASE_INSENSITIVE.accepts("ye s", "yes")).isFalse();
+    }
+
+    @Test
+    void ofMapsEveryBuiltInType() {
+        assertThat(Checkers.of(null)).isSameAs(Checkers.EXACT);
+        assertThat(Checkers.of(CheckerType.UNORDERED_LINES)).isSameAs(Checkers.UNORDERED_LINES);
+        assertThatThrownBy(() -> Checkers.of(CheckerType.SPECIAL)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // ---------- HELPERS ----------
+
+    // Found with a cycle search over 5-char strings
+    private static final String COLLIDING_LINE_A = "\u507e\u519c\u4731\u4c6e\u4cbd";
+    private static final String COLLIDING_LINE_B = "\u510d\u5226\u5646\u56bb\u4824";
+
+    private static long fnv1a(String s) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            hash = (hash ^ s.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.codeforge.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingJudgeTest {
+
+    // ---------- SAME VERDICT AS THE BUFFERED PATH ----------
+
+    // Escapes: \n, \r and \t are decoded before judging
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', quoteCharacter = '"', value = {
+            "1 2\\n3      | 1 2\\n3",
+            "1 2\\r\\n3\\r\\n | 1 2\\n3",
+            "1 2\\n3      | 1 2\\r\\n3\\r\\n",
+            "\\n\\n  1 2\\n3 \\n\\t\\n | 1 2\\n3",
+            "1 2 \\n3     | 1 2\\n3",
+            "1 2\\r\\r\\n3 | 1 2\\n3",
+            "1 2\\r3      | 1 2\\n3",
+            "1 2\\r       | 1 2",
+            "b\\ra        | b\\na",
+            "b\\r\\ra      | b\\na",
+            "1  2\\n3     | 1 2\\n3",
+            "1 2\\n3\\n4  | 1 2\\n3",
+            "1 2         | 1 2\\n3",
+            "\"\"         | 1",
+            "2.000001    | 2",
+            " 2.1\\r\\n   | 2",
+            "1e3         | 1000",
+            "2 2         | 2",
+            "abc         | 2",
+            "2           | 2 2",
+    })
+    void verdictMatchesBufferedChecker(String output, String expected) throws IOException {
+        String out = unescape(output);
+        String exp = unescape(expected);
+
+        StreamingJudge judge = judge(out, exp);
+
+        assertThat(judge.passed())
+                .as("%s vs %s", output, expected)
+                .isEqualTo(Checkers.EXACT.accepts(buffered(out), exp));
+        assertThat(judge.mismatchOffset() >= 0).isEqualTo(!judge.passed());
+    }
+
+    // ---------- MISMATCH OFFSETS ----------
+
+    @Test
+    void mismatchOffsetPointsAtFirstWrongByte() throws IOException {
+        StreamingJudge judge = judge("\n  1 2\n4\n", "1 2\n3");
+
+        assertThat(judge.passed()).isFalse();
+        assertThat(judge.rejected()).isTrue();
+        assertThat(judge.mismatchOffset()).isEqualTo(7);
+    }
+
+    @Test
+    void mismatchOffsetCountsCarriageReturns() throws IOException {
+        StreamingJudge judge = judge("1\r\n2\r\nx", "1\n2\n3");
+
+        assertThat(judge.mismatchOffset()).isEqualTo(6);
+    }
+
+    @Test
+    void extraOutputIsRejectedWhereItStarts() throws IOException {
+        StreamingJudge judge = judge("1 2 \r\n 3", "1 2");
+
+        assertThat(judge.rejected()).isTrue();
+        assertThat(judge.mismatchOffset()).isEqualTo(7);
+    }
+
+    @Test
+    void shortOutputMismatchesAtItsEnd() throws IOException {
+        StreamingJudge judge = judge("1 2\n", "1 2\n3");
+
+        assertThat(judge.rejected()).isFalse();
+        assertThat(judge.passed()).isFalse();
+        assertThat(judge.mismatchOffset()).isEqualTo(4);
+    }
+
+    @Test
+    void wrongNumberMismatchesAtFirstDifferentDigit() throws IOException {
+        StreamingJudge judge = judge("  2.5\n", "2.4");
+
+        assertThat(judge.passed()).isFalse();
+        assertThat(judge.mismatchOffset()).isEqualTo(4);
+    }
+
+    @Test
+    void matchingOutputHasNoMismatch() throws IOException {
+        StreamingJudge judge = judge("1 2\r\n3\r\n", "1 2\n3");
+
+        assertThat(judge.passed()).isTrue();
+        assertThat(judge.mismatchOffset()).isEqualTo(-1);
+        assertThat(judge.stdout()).isEqualTo("1 2\n3");
+    }
+
+    // ---------- LONG OUTPUT ----------
+
+    @Test
+    void answersLongerThanTheStoredOutputPassOnEveryPath() throws IOException {
+        String expected = lines(5_000);
+        assertThat(expected.length()).isGreaterThan(CodeExecutionUtil.MAX_OUTPUT_CHARS);
+        String output = expected.replace("\n", "\r\n");
+
+        for (Checker checker : new Checker[] {Checkers.EXACT, Checkers.TOKENS, Checkers.UNORDERED_LINES}) {
+            assertThat(judge(output, expected, checker).passed()).as("streaming %s", checker).isTrue();
+            assertThat(bufferedResult(output, expected, checker).passed()).as("buffered %s", checker).isTrue();
+        }
+    }
+
+    @Test
+    void longWrongAnswersFailOnEveryPath() throws IOException {
+        String expected = lines(5_000);
+        String output = expected.substring(0, expected.length() - 2) + "x\n";
+
+        for (Checker checker : new Checker[] {Checkers.EXACT, Checkers.TOKENS}) {
+            assertThat(judge(output, expected, checker).passed()).as("streaming %s", checker).isFalse();
+            assertThat(bufferedResult(output, expected, checker).passed()).as("buffered %s", checker).isFalse();
+        }
+    }
+
+    @Test
+    void outputPastTheLimitFailsOnEveryPath() throws IOException {
+        String expected = lines(5_000);
+        long limit = CodeExecutionUtil.outputLimit(expected);
+        String output = expected + "\n".repeat((int) (limit - expected.length() + 2));
+
+        for (Checker checker : new Checker[] {Checkers.EXACT, Checkers.TOKENS}) {
+            StreamingJudge judge = judge(output, expected, checker);
+            assertThat(judge.outputLimitExceeded()).as("streaming %s", checker).isTrue();
+
+            CodeExecutionUtil.ExecutionResult result = bufferedResult(output, expected, checker);
+            assertThat(result.passed()).as("buffered %s", checker).isFalse();
+            assertThat(result.stderr()).startsWith("Output limit exceeded");
+        }
+    }
+
+    @Test
+    void onlyTheStoredCopyIsTruncated() throws IOException {
+        String expected = lines(5_000);
+
+        CodeExecutionUtil.ExecutionResult result = bufferedResult(expected, expected, Checkers.EXACT);
+
+        assertThat(result.passed()).isTrue();
+        assertThat(result.stdout()).endsWith("[Output truncated]");
+        assertThat(judge(expected, expected).stdout()).isEqualTo(result.stdout());
+    }
+
+    // ---------- OTHER CHECKERS ----------
+
+    @Test
+    void otherCheckersJudgeTheWholeOutput() throws IOException {
+        StreamingJudge judge = judge("b\r\na\r\n", "a\nb", Checkers.UNORDERED_LINES);
+
+        assertThat(judge.rejected()).isFalse();
+        assertThat(judge.passed()).isTrue();
+    }
+
+    @Test
+    void otherCheckersSeeLoneCarriageReturnsAsLineBreaks() throws IOException {
+        StreamingJudge judge = judge("b\ra\r", "a\nb", Checkers.UNORDERED_LINES);
+
+        assertThat(judge.passed())
+                .isEqualTo(Checkers.UNORDERED_LINES.accepts(buffered("b\ra\r"), "a\nb"))
+                .isTrue();
+    }
+
+    @Test
+    void runawayOutputIsRejectedAtTheLimit() throws IOException {
+        AtomicBoolean killed = new AtomicBoolean();
+        StreamingJudge judge = new StreamingJudge("1", Checkers.TOKENS, () -> killed.set(true));
+
+        judge.consume(new EndlessInput());
+
+        assertThat(killed).isTrue();
+        assertThat(judge.outputLimitExceeded()).isTrue();
+    }
+
+    // ---------- HELPERS ----------
+
+    private static StreamingJudge judge(String output, String expected) throws IOException {
+        return judge(output, expected, Checkers.EXACT);
+    }
+
+    private static StreamingJudge judge(String output, String expected, Checker checker) throws IOException {
+        StreamingJudge judge = new StreamingJudge(expected, checker, () -> {});
+        judge.consume(new ByteArrayInputStream(output.getBytes(StandardCharsets.UTF_8)));
+        return judge;
+    }
+
+    // What the other backends hand the checker
+    private static String buffered(String output) {
+        return CodeExecutionUtil.judgedText(output.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static CodeExecutionUtil.ExecutionResult bufferedResult(String output, String expected, Checker checker) {
+        return CodeExecutionUtil.toResult(output.getBytes(StandardCharsets.UTF_8), "", 0, expected, checker);
+    }
+
+    private static String lines(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(i).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String unescape(String s) {
+        return s.replace("\\n", "\n").replace("\\r", "\r").replace("\\t", "\t");
+    }
+
+    private static final class EndlessInput extends InputStream {
+
+        @Override
+        public int read() {
+            return '1';
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            Arrays.fill(b, off, off + len, (byte) '1');
+            return len;
+        }
+    }
+}
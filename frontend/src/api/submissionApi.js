@@ -29,6 +29,70 @@ export const getSubmissionDetailApi = async (submissionId) => {
   return res.data.data;
 };
 
+/**
+ * Poll GET /api/submissions/{submissionId} until judging has finished.
+ * POST /api/submissions returns 202 with a PENDING submission.
+ */
+export const waitForSubmissionApi = async (submissionId, intervalMs = 1000) => {
+  for (;;) {
+    const detail = await getSubmissionDetailApi(submissionId);
+
+    if (detail.status !== "PENDING" && detail.status !== "RUNNING") {
+      return detail;
+    }
+
+    await new Promise((resolve) => setTimeout(resolve, intervalMs));
+  }
+};
+
+/**
+ * GET /api/submissions/{submissionId}/events (Server-Sent Events)
+ * Calls onEvent(name, data) for every "testcase" / "status" event and
+ * resolves with the final status. Uses fetch so the JWT goes in a header.
+ */
+export const streamSubmissionEventsApi = async (submissionId, onEvent) => {
+  if (!submissionId) throw new Error("submissionId is required");
+
+  const token = localStorage.getItem("token");
+  const res = await fetch(`${api.defaults.baseURL}/submissions/${submissionId}/events`, {
+    headers: {
+      Accept: "text/event-stream",
+      ...(token ? { Authorization: `Bearer ${token}` } : {}),
+    },
+  });
+
+  if (!res.ok || !res.body) {
+    throw new Error(`Event stream failed (${res.status})`);
+  }
+
+  const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+  let buffer = "";
+
+  for (;;) {
+    const { value, done } = await reader.read();
+    if (done) throw new Error("Event stream closed before final status");
+
+    buffer += value;
+    let boundary;
+    while ((boundary = buffer.indexOf("\n\n")) !== -1) {
+      const block = buffer.slice(0, boundary);
+      buffer = buffer.slice(boundary + 2);
+
+      let name = "message";
+      const data = [];
+      for (const line of block.split("\n")) {
+        if (line.startsWith("event:")) name = line.slice(6).trim();
+        else if (line.startsWith("data:")) data.push(line.slice(5));
+      }
+      if (data.length === 0) continue;
+
+      const payload = JSON.parse(data.join("\n"));
+      onEvent?.(name, payload);
+      if (name === "status") return payload;
+    }
+  }
+};
+
 /**
  * GET /api/submissions/my
  */
@@ -1,7 +1,11 @@
 import { useEffect, useState } from "react";
 import { useParams, useNavigate } from "react-router-dom";
 import { getProblemByIdApi } from "../../api/problemApi";
-import { submitCodeApi } from "../../api/submissionApi";
+import {
+  submitCodeApi,
+  streamSubmissionEventsApi,
+  waitForSubmissionApi,
+} from "../../api/submissionApi";
 import { getPublicTestcasesApi } from "../../api/testcaseApi";
 import Editor from "@monaco-editor/react";
 import "./Problems.css";
@@ -63,6 +67,21 @@ const ProblemDetail = () => {
       });
 
       setResult(submission);
+
+      let judged = 0;
+      try {
+        // ✅ Live verdicts; falls back to polling if the stream is unavailable
+        const status = await streamSubmissionEventsApi(submission.submissionId, (name) => {
+          if (name === "testcase") {
+            judged += 1;
+            setResult((prev) => ({ ...prev, output: `${judged} testcase(s) judged...` }));
+          }
+        });
+        setResult(status);
+      } catch (streamErr) {
+        console.warn("Live verdicts unavailable, polling instead", streamErr);
+        setResult(await waitForSubmissionApi(submission.submissionId));
+      }
     } catch (err) {
       setError("Submission failed. Please try again.");
     } finally {
@@ -222,6 +241,8 @@ const ProblemDetail = () => {
                   {result.status === "PASSED" && "✓ All Tests Passed"}
                   {result.status === "FAILED" && "✗ Some Tests Failed"}
                   {result.status === "ERROR" && "⚠ Runtime Error"}
+                  {result.status === "PENDING" && "⏳ Queued..."}
+                  {result.status === "RUNNING" && "⏳ Judging..."}
                 </span>
               </div>
 